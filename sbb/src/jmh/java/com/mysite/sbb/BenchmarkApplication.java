@@ -0,0 +1,91 @@
+package com.mysite.sbb;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.question.QuestionSearchIndex;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+// 벤치마크용 애플리케이션 실행/데이터 준비
+// 벤치마크마다 별도의 메모리 H2 DB를 사용하고, 로그/SQL 출력을 끈다.
+public final class BenchmarkApplication {
+	private static final String[] WORDS = { "스프링", "부트", "질문", "답변", "페이징", "검색", "트랜잭션", "캐시", "쿼리",
+			"spring", "boot", "jpa", "hibernate", "thymeleaf", "security", "index", "h2", "gradle", "test", "entity" };
+
+	private BenchmarkApplication() {
+	}
+
+	public static ConfigurableApplicationContext start(String name, String... properties) {
+		return new SpringApplicationBuilder(SbbApplication.class)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+						"spring.jpa.properties.hibernate.show_sql=false",
+						"spring.jpa.properties.hibernate.format_sql=false",
+						"spring.main.banner-mode=off",
+						"logging.level.root=warn",
+						"server.port=0")
+				.properties(properties) // 벤치마크별 추가 설정
+				.run();
+	}
+
+	// 사용자 50명, 질문 questions개, 질문당 답변 answersPerQuestion개를 만들고 카운터와 검색 색인을 갱신한다.
+	public static void seed(ConfigurableApplicationContext context, int questions, int answersPerQuestion) {
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		QuestionRepository questionRepository = context.getBean(QuestionRepository.class);
+		AnswerRepository answerRepository = context.getBean(AnswerRepository.class);
+		Random random = new Random(42);
+
+		List<SiteUser> users = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			SiteUser user = new SiteUser();
+			user.setUsername("user" + i);
+			user.setEmail("user" + i + "@sbb.com");
+			user.setPassword("password");
+			users.add(user);
+		}
+		userRepository.saveAll(users);
+
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < questions; i++) {
+			Question q = new Question();
+			q.setSubject(sentence(random, 6));
+			q.setContent(sentence(random, 60));
+			q.setCreateDate(now.minusMinutes(questions - i));
+			q.setAuthor(users.get(random.nextInt(users.size())));
+			questionRepository.save(q);
+			List<Answer> answers = new ArrayList<>();
+			for (int j = 0; j < answersPerQuestion; j++) {
+				Answer a = new Answer();
+				a.setContent(sentence(random, 40));
+				a.setCreateDate(q.getCreateDate().plusSeconds(j + 1));
+				a.setQuestion(q);
+				a.setAuthor(users.get(random.nextInt(users.size())));
+				answers.add(a);
+			}
+			answerRepository.saveAll(answers);
+		}
+		context.getBean(CountReconciler.class).reconcile();
+		context.getBean(QuestionSearchIndex.class).rebuild();
+	}
+
+	private static String sentence(Random random, int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				sb.append(' ');
+			}
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+}
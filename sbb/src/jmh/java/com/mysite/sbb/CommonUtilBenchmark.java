@@ -0,0 +1,60 @@
+package com.mysite.sbb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// 마크다운 렌더링: 캐시 적중(markdown)과 매번 파싱/렌더링(render) 비교
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CommonUtilBenchmark {
+	// short: 짧은 답변, long: 코드 블록과 목록이 많은 긴 질문
+	@Param({ "short", "long" })
+	private String document;
+
+	private CommonUtil commonUtil;
+	private String markdown;
+
+	@Setup
+	public void setup() {
+		this.commonUtil = new CommonUtil(new SimpleMeterRegistry(), 50_000_000);
+		this.markdown = "short".equals(this.document) ? document(1) : document(20);
+	}
+
+	@Benchmark
+	public String markdown() {
+		return this.commonUtil.markdown(this.markdown);
+	}
+
+	@Benchmark
+	public String render() {
+		return this.commonUtil.render(this.markdown);
+	}
+
+	// 실제 게시글과 비슷한 구성(제목, 문단, 목록, 코드, 링크, 인용)을 sections번 반복한다.
+	private static String document(int sections) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < sections; i++) {
+			sb.append("## ").append(i + 1).append(". 페이징이 동작하지 않습니다\n\n")
+				.append("스프링 부트에서 **Pageable**을 사용해 질문 목록을 조회하는데 `page` 매개변수가 무시됩니다. ")
+				.append("[공식 문서](https://docs.spring.io/spring-data/jpa/reference/)를 참고했지만 원인을 모르겠습니다.\n\n")
+				.append("- 스프링 부트 3.2\n- H2 데이터베이스\n- *Thymeleaf* 템플릿\n\n")
+				.append("```java\n")
+				.append("Pageable pageable = PageRequest.of(page, 10, Sort.by(\"createDate\").descending());\n")
+				.append("return this.questionRepository.findAll(pageable);\n")
+				.append("```\n\n")
+				.append("> 정렬 조건을 추가한 뒤부터 문제가 생겼습니다.\n\n");
+		}
+		return sb.toString();
+	}
+}
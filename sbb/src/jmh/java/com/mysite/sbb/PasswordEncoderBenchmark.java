@@ -0,0 +1,38 @@
+package com.mysite.sbb;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// 회원가입(UserService.create)의 비밀번호 암호화와 로그인 시 비밀번호 확인 비용
+// SecurityConfig에 등록된 것과 같은 PasswordEncoder를 사용한다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+	private PasswordEncoder passwordEncoder;
+	private String encoded;
+
+	@Setup
+	public void setup() {
+		this.passwordEncoder = new SecurityConfig().passwordEncoder();
+		this.encoded = this.passwordEncoder.encode("password1234");
+	}
+
+	@Benchmark
+	public String encode() {
+		return this.passwordEncoder.encode("password1234");
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return this.passwordEncoder.matches("password1234", this.encoded);
+	}
+}
@@ -0,0 +1,101 @@
+package com.mysite.sbb;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import com.mysite.sbb.answer.AnswerForm;
+import com.mysite.sbb.answer.AnswerService;
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionCursor;
+import com.mysite.sbb.question.QuestionService;
+
+// Thymeleaf 템플릿 렌더링 (조회는 준비 단계에서 끝내고 뷰 렌더링만 측정한다.)
+// 컨트롤러와 같은 모델로 ThymeleafView를 렌더링하며, 로그인하지 않은 사용자 기준이다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TemplateRenderBenchmark {
+	private ConfigurableApplicationContext context;
+	private View questionList;
+	private View questionDetail;
+	private Map<String, Object> listModel;
+	private Map<String, Object> detailModel;
+	private final AnonymousAuthenticationToken anonymous = new AnonymousAuthenticationToken("benchmark",
+			"anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+	@Setup
+	public void setup() throws Exception {
+		this.context = BenchmarkApplication.start("template-benchmark");
+		BenchmarkApplication.seed(this.context, 100, 30);
+		QuestionService questionService = this.context.getBean(QuestionService.class);
+		AnswerService answerService = this.context.getBean(AnswerService.class);
+
+		ViewResolver viewResolver = this.context.getBean("thymeleafViewResolver", ViewResolver.class);
+		this.questionList = viewResolver.resolveViewName("question_list", Locale.KOREAN);
+		this.questionDetail = viewResolver.resolveViewName("question_detail", Locale.KOREAN);
+
+		Page<Question> paging = questionService.getList(0, "");
+		List<Question> content = paging.getContent();
+		this.listModel = new HashMap<>();
+		this.listModel.put("kw", "");
+		this.listModel.put("paging", paging);
+		this.listModel.put("maxPage", QuestionService.MAX_PAGE);
+		this.listModel.put("nextCursor", QuestionCursor.next(content.get(content.size() - 1)).encode());
+
+		Question question = questionService.getQuestion(content.get(0).getId());
+		this.detailModel = new HashMap<>();
+		this.detailModel.put("question", question);
+		this.detailModel.put("answerPaging", answerService.getList(question.getId(), 0, AnswerService.SORT_LATEST));
+		this.detailModel.put("answerSort", AnswerService.SORT_LATEST);
+		this.detailModel.put("questionId", question.getId());
+		this.detailModel.put("answerForm", new AnswerForm());
+	}
+
+	@TearDown
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+		this.context.close();
+	}
+
+	@Benchmark
+	public String questionList() throws Exception {
+		return render(this.questionList, this.listModel, "/question/list");
+	}
+
+	@Benchmark
+	public String questionDetail() throws Exception {
+		return render(this.questionDetail, this.detailModel, "/question/detail/" + this.detailModel.get("questionId"));
+	}
+
+	private String render(View view, Map<String, Object> model, String uri) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(
+				((ServletWebServerApplicationContext) this.context).getServletContext(), "GET", uri);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		// SecurityContextHolder는 스레드별로 보관되므로 벤치마크 스레드에서 설정한다.
+		SecurityContextHolder.getContext().setAuthentication(this.anonymous);
+		view.render(model, request, response);
+		return response.getContentAsString();
+	}
+}
@@ -0,0 +1,98 @@
+package com.mysite.sbb.question;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mysite.sbb.BenchmarkApplication;
+import com.mysite.sbb.answer.AnswerService;
+
+// 질문 100만 건(답변 300만 건)에서 목록/상세 조회 시간: V2 인덱스 적용 전(indexed=false)과 후(indexed=true) 비교
+// 적용 전은 V2__list_and_join_indexes.sql의 인덱스를 지워서 ddl-auto=update로 만들어지던 스키마와 같게 한다.
+// 실행: gradle jmh -PjmhIncludes=QuestionIndexBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class QuestionIndexBenchmark {
+	private static final int QUESTIONS = 1_000_000;
+	private static final int ANSWERS_PER_QUESTION = 3;
+	private static final int USERS = 1000;
+	private static final String[] V2_INDEXES = { "idx_question_create_date_id", "idx_answer_question_create_date_id",
+			"idx_question_author", "idx_answer_author", "idx_question_voter_voter", "idx_answer_voter_voter" };
+
+	@Param({ "false", "true" })
+	private boolean indexed;
+
+	private ConfigurableApplicationContext context;
+	private QuestionService questionService;
+	private AnswerService answerService;
+	private int detailId;
+
+	@Setup
+	public void setup() {
+		this.context = BenchmarkApplication.start("index-benchmark-" + this.indexed,
+				// 캐시가 아닌 DB 조회 시간을 측정한다.
+				"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+				"spring.jpa.properties.hibernate.cache.use_query_cache=false",
+				// 측정 중에 백그라운드 작업이 실행되지 않도록 한다.
+				"sbb.markdown.backfill.enabled=false",
+				"sbb.purge.enabled=false");
+		JdbcTemplate jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+		if (!this.indexed) {
+			for (String index : V2_INDEXES) {
+				jdbcTemplate.execute("drop index if exists " + index);
+			}
+		}
+		// 엔티티로 100만 건을 저장하면 오래 걸리므로 SQL로 직접 넣는다.
+		jdbcTemplate.execute("insert into site_user (id, username, email, password) "
+				+ "select x, 'user' || x, 'user' || x || '@sbb.com', 'password' from system_range(1, " + USERS + ")");
+		jdbcTemplate.execute("insert into question (id, subject, content, render_version, create_date, author_id, answer_count, vote_count) "
+				+ "select x, '질문 ' || x, '내용 ' || x, 0, dateadd('SECOND', x, timestamp '2020-01-01 00:00:00'), mod(x, " + USERS + ") + 1, "
+				+ ANSWERS_PER_QUESTION + ", 0 from system_range(1, " + QUESTIONS + ")");
+		jdbcTemplate.execute("insert into answer (id, content, render_version, create_date, question_id, author_id, vote_count) "
+				+ "select x, '답변 ' || x, 0, dateadd('SECOND', x, timestamp '2020-01-02 00:00:00'), (x - 1) / " + ANSWERS_PER_QUESTION + " + 1, "
+				+ "mod(x, " + USERS + ") + 1, 0 from system_range(1, " + QUESTIONS * ANSWERS_PER_QUESTION + ")");
+		jdbcTemplate.execute("analyze");
+		this.questionService = this.context.getBean(QuestionService.class);
+		this.answerService = this.context.getBean(AnswerService.class);
+		this.detailId = QUESTIONS / 2;
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	// 질문 목록 첫 페이지 (OFFSET 페이징)
+	@Benchmark
+	public Object list() {
+		return this.questionService.getList(0, "");
+	}
+
+	// 질문 목록 첫 페이지 (커서 페이징)
+	@Benchmark
+	public Object listCursor() {
+		return this.questionService.getList("", null);
+	}
+
+	// 질문 상세: ETag 버전, 질문, 답변 첫 페이지
+	@Benchmark
+	public void detail(Blackhole blackhole) {
+		blackhole.consume(this.questionService.getDetailVersion(this.detailId));
+		blackhole.consume(this.questionService.getQuestion(this.detailId));
+		blackhole.consume(this.answerService.getList(this.detailId, 0, AnswerService.SORT_LATEST).getContent());
+	}
+}
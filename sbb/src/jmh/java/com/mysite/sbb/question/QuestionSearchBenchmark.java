@@ -0,0 +1,64 @@
+package com.mysite.sbb.question;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.mysite.sbb.BenchmarkApplication;
+
+// 질문 검색 첫 페이지: Specification(LIKE), JPQL(findAllByKeyword, LIKE), 검색 색인(QuestionService.getList) 비교
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class QuestionSearchBenchmark {
+	// spring: 자주 나오는 단어, 트랜잭션 캐시: 두 단어 모두 포함
+	@Param({ "spring", "트랜잭션 캐시" })
+	private String kw;
+
+	private ConfigurableApplicationContext context;
+	private QuestionService questionService;
+	private QuestionRepository questionRepository;
+	private Pageable pageable;
+
+	@Setup
+	public void setup() {
+		this.context = BenchmarkApplication.start("search-benchmark");
+		BenchmarkApplication.seed(this.context, 2000, 5);
+		this.questionService = this.context.getBean(QuestionService.class);
+		this.questionRepository = this.context.getBean(QuestionRepository.class);
+		this.pageable = PageRequest.of(0, QuestionService.PAGE_SIZE, Sort.by(Sort.Order.desc("createDate")));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Page<Question> specification() {
+		return this.questionRepository.findAll(this.questionService.search(this.kw), this.pageable);
+	}
+
+	@Benchmark
+	public Page<Question> jpql() {
+		return this.questionRepository.findAllByKeyword(this.kw, this.pageable);
+	}
+
+	@Benchmark
+	public Page<Question> searchIndex() {
+		return this.questionService.getList(0, this.kw);
+	}
+}
@@ -0,0 +1,54 @@
+package com.mysite.sbb.question;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 자동완성 색인: 질문 100만 개에서 접두어 길이별 응답 시간 (목표: 1ms 미만)
+// ㅅ: 초성 하나(범위가 가장 넓다), 스프: 음절 입력 중, 스프링 ㅂ: 두 번째 단어 입력 중, zzz: 결과 없음
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class QuestionSuggestBenchmark {
+	private static final String[] WORDS = { "스프링", "부트", "페이징", "질문", "답변", "트랜잭션", "캐시", "오류", "설정",
+			"타임리프", "시큐리티", "로그인", "배포", "테스트", "쿼리", "인덱스", "성능", "spring", "jpa", "h2" };
+
+	@Param({ "1000000" })
+	private int questions;
+
+	@Param({ "ㅅ", "스프", "스프링 ㅂ", "zzz" })
+	private String query;
+
+	private QuestionSuggestIndex index;
+
+	@Setup
+	public void setup() {
+		this.index = new QuestionSuggestIndex(null);
+		Random random = new Random(42);
+		for (int id = 1; id <= this.questions; id++) {
+			StringBuilder subject = new StringBuilder();
+			int words = 2 + random.nextInt(4);
+			for (int w = 0; w < words; w++) {
+				subject.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			subject.append(id);
+			// 추천, 답변 수는 소수의 질문에 몰리도록 한다.
+			int popularity = (int) (Math.pow(random.nextDouble(), 8) * 200);
+			this.index.put(id, subject.toString(), popularity, popularity / 2);
+		}
+	}
+
+	@Benchmark
+	public List<QuestionSuggestIndex.Suggestion> suggest() {
+		return this.index.suggest(this.query, QuestionSuggestIndex.MAX_SUGGESTIONS);
+	}
+}
@@ -0,0 +1,51 @@
+package com.mysite.sbb.loadtest;
+
+import java.util.Arrays;
+
+// 엔드포인트별 응답 시간(나노초) 기록과 백분위 계산
+class EndpointStats {
+	private final String name;
+	private long[] latencies = new long[1024];
+	private int count;
+	private int errors;
+
+	EndpointStats(String name) {
+		this.name = name;
+	}
+
+	synchronized void record(long latencyNanos, boolean success) {
+		if (this.count == this.latencies.length) {
+			this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+		}
+		this.latencies[this.count++] = latencyNanos;
+		if (!success) {
+			this.errors++;
+		}
+	}
+
+	synchronized String report(double seconds) {
+		long[] sorted = Arrays.copyOf(this.latencies, this.count);
+		Arrays.sort(sorted);
+		return String.format("%-14s %8d %7d %10.1f %9.1f %9.1f %9.1f %9.1f",
+				this.name, this.count, this.errors, this.count / seconds,
+				millis(percentile(sorted, 50)), millis(percentile(sorted, 90)),
+				millis(percentile(sorted, 99)), millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+	}
+
+	static String header() {
+		return String.format("%-14s %8s %7s %10s %9s %9s %9s %9s",
+				"endpoint", "count", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)");
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+		return sorted[Math.max(index, 0)];
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+}
@@ -0,0 +1,187 @@
+package com.mysite.sbb.loadtest;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/* 실행 중인 애플리케이션에 대한 HTTP 부하 테스트
+ * 실행: gradle loadTest -PloadTestArgs="--rps=200 --duration=60 --questions=1000000"
+ * - 목록, 검색, 상세, 답변 등록, 추천 요청을 비율(mix)대로 섞어 목표 RPS로 보낸다.
+ * - 응답을 기다리지 않고 정해진 시각마다 요청을 보내므로(open model) 서버가 느려져도 요청률이 줄지 않는다.
+ * 	응답 시간은 예정된 전송 시각부터 측정한다. (coordinated omission 방지)
+ * - 로그인이 필요한 요청은 DataSeeder가 만든 seed{n} 사용자로 로그인한 세션을 나누어 사용한다.
+ * - 끝나면 엔드포인트별 처리량과 p50/p90/p99 응답 시간을 출력한다. (워밍업 구간은 제외)
+ */
+public class LoadTest {
+	private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+	private static final String[] KEYWORDS = { "spring", "jpa", "질문", "트랜잭션 캐시", "thymeleaf", "검색" };
+
+	private final String baseUrl;
+	private final int rps;
+	private final int durationSeconds;
+	private final int warmupSeconds;
+	private final int questions;
+	private final Map<String, Integer> mix = new LinkedHashMap<>();
+	private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+	private final List<Session> sessions = new ArrayList<>();
+	private final HttpClient anonymous;
+
+	private record Session(HttpClient client, String csrf) {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (arg.startsWith("--") && arg.contains("=")) {
+				options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+			}
+		}
+		new LoadTest(options).run(Integer.parseInt(options.getOrDefault("users", "20")),
+				options.getOrDefault("password", "password"));
+	}
+
+	LoadTest(Map<String, String> options) {
+		this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+		this.rps = Integer.parseInt(options.getOrDefault("rps", "100"));
+		this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+		this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+		this.questions = Integer.parseInt(options.getOrDefault("questions", "1000"));
+		// 요청 비율 (예: --mix=list:30,search:15,detail:40,answer:5,vote:10)
+		for (String entry : options.getOrDefault("mix", "list:30,search:15,detail:40,answer:5,vote:10").split(",")) {
+			String[] pair = entry.split(":");
+			this.mix.put(pair[0], Integer.parseInt(pair[1]));
+			this.stats.put(pair[0], new EndpointStats(pair[0]));
+		}
+		this.anonymous = client();
+	}
+
+	private void run(int users, String password) throws Exception {
+		for (int i = 0; i < users; i++) {
+			this.sessions.add(login("seed" + i, password));
+		}
+		System.out.printf("logged in %d users, target %d req/s for %d s (+%d s warmup)%n",
+				users, this.rps, this.durationSeconds, this.warmupSeconds);
+
+		List<CompletableFuture<?>> pending = new ArrayList<>();
+		long interval = TimeUnit.SECONDS.toNanos(1) / this.rps;
+		long start = System.nanoTime();
+		long warmupEnd = start + TimeUnit.SECONDS.toNanos(this.warmupSeconds);
+		long end = warmupEnd + TimeUnit.SECONDS.toNanos(this.durationSeconds);
+		for (long scheduled = start; scheduled < end; scheduled += interval) {
+			long wait = scheduled - System.nanoTime();
+			if (wait > 0) {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			}
+			pending.add(send(pick(), scheduled, scheduled >= warmupEnd));
+			pending.removeIf(CompletableFuture::isDone);
+		}
+		CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+		System.out.println(EndpointStats.header());
+		for (EndpointStats endpoint : this.stats.values()) {
+			System.out.println(endpoint.report(this.durationSeconds));
+		}
+	}
+
+	private String pick() {
+		int total = this.mix.values().stream().mapToInt(Integer::intValue).sum();
+		int r = ThreadLocalRandom.current().nextInt(total);
+		for (Map.Entry<String, Integer> entry : this.mix.entrySet()) {
+			r -= entry.getValue();
+			if (r < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private CompletableFuture<?> send(String endpoint, long scheduled, boolean record) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Session session = this.sessions.get(random.nextInt(this.sessions.size()));
+		HttpRequest request = switch (endpoint) {
+			case "list" -> get("/question/list?page=" + random.nextInt(5));
+			case "search" -> get("/question/list?kw=" + encode(KEYWORDS[random.nextInt(KEYWORDS.length)]));
+			case "detail" -> get("/question/detail/" + questionId(random));
+			case "answer" -> post("/answer/create/" + questionId(random),
+					"content=" + encode("부하 테스트 답변입니다.") + "&_csrf=" + encode(session.csrf()));
+			case "vote" -> get("/question/vote/" + questionId(random));
+			default -> throw new IllegalArgumentException(endpoint);
+		};
+		// 목록/검색/상세는 로그인하지 않은 사용자, 답변 등록/추천은 로그인한 사용자로 요청한다.
+		HttpClient client = "answer".equals(endpoint) || "vote".equals(endpoint) ? session.client() : this.anonymous;
+		return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+				.handle((response, e) -> {
+					if (record) {
+						// 답변 등록/추천은 처리 후 상세 화면으로 이동(302)한다.
+						boolean success = e == null && (response.statusCode() == 200
+								|| (response.statusCode() == 302 && !response.headers().firstValue("Location").orElse("").contains("/user/login")));
+						this.stats.get(endpoint).record(System.nanoTime() - scheduled, success);
+					}
+					return null;
+				});
+	}
+
+	// 최근 질문일수록 많이 조회된다.
+	private int questionId(ThreadLocalRandom random) {
+		return this.questions - (int) (this.questions * Math.pow(random.nextDouble(), 3));
+	}
+
+	private Session login(String username, String password) throws Exception {
+		HttpClient client = client();
+		String loginPage = client.send(get("/user/login"), HttpResponse.BodyHandlers.ofString()).body();
+		HttpResponse<Void> response = client.send(post("/user/login", "username=" + encode(username)
+				+ "&password=" + encode(password) + "&_csrf=" + encode(csrf(loginPage))), HttpResponse.BodyHandlers.discarding());
+		if (response.headers().firstValue("Location").orElse("").contains("error")) {
+			throw new IllegalStateException("login failed: " + username);
+		}
+		// 로그인하면 CSRF 토큰이 바뀌므로 폼 화면에서 다시 가져온다.
+		String form = client.send(get("/question/create"), HttpResponse.BodyHandlers.ofString()).body();
+		return new Session(client, csrf(form));
+	}
+
+	private HttpClient client() {
+		return HttpClient.newBuilder()
+				.cookieHandler(new CookieManager())
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(this.baseUrl + path)).GET().build();
+	}
+
+	private HttpRequest post(String path, String form) {
+		return HttpRequest.newBuilder(URI.create(this.baseUrl + path))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build();
+	}
+
+	private static String csrf(String html) {
+		Matcher matcher = CSRF.matcher(html);
+		if (!matcher.find()) {
+			throw new IllegalStateException("csrf token not found");
+		}
+		return matcher.group(1);
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+}
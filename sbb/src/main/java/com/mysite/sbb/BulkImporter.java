@@ -0,0 +1,341 @@
+package com.mysite.sbb;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/* 이전 게시판 데이터 대량 가져오기 (import 프로파일에서만 동작)
+ * 실행: gradle bootRun --args='--spring.profiles.active=import --sbb.import.file=/path/posts.ndjson'
+ * - NDJSON(한 줄에 ImportRecord 하나)을 한 줄씩 읽어 batch-size 줄마다 JDBC 배치 INSERT 한다.
+ * 	질문/답변 서비스의 create를 한 건씩 호출하면 행마다 DB 왕복이 생긴다.
+ * - id는 엔티티와 같은 시퀀스에서 ALLOCATION_SIZE개씩 받아 사용한다. (애플리케이션과 동시에 실행해도 겹치지 않는다.)
+ * - 작성자/추천인은 사용자명으로 찾고, 없으면 로그인할 수 없는 사용자로 만든다.
+ * - 원본 키 -> 새 id는 import_mapping 테이블에, 처리한 줄 번호는 import_checkpoint 테이블에 배치와 같은 트랜잭션으로 저장한다.
+ * 	실패 후 다시 실행하면 마지막으로 커밋된 줄 다음부터 이어서 처리한다.
+ * - 답변 수, 추천 수 카운터와 검색 색인은 시작 완료 후 CountReconciler, QuestionSearchIndex가 다시 계산한다.
+ */
+@Slf4j
+@Profile("import")
+@Component
+public class BulkImporter implements ApplicationRunner {
+	private static final int IN_CLAUSE_SIZE = 500;
+	// 이전 게시판 사용자의 비밀번호는 옮기지 않는다. (BCrypt 형식이 아니므로 로그인할 수 없다.)
+	private static final String NO_PASSWORD = "!";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+
+	// 사용자명 -> id, 원본 키("q:{id}", "a:{id}") -> 새 id (없으면 DB에서 찾는다.)
+	// 크기가 제한된 캐시라 언제든 제거될 수 있으므로 조회에만 사용하고, 배치 안에서는 resolve한 지역 Map만 읽는다.
+	private final Cache<String, Long> userIds = Caffeine.newBuilder().maximumSize(1_000_000).build();
+	private final Cache<String, Long> mappedIds = Caffeine.newBuilder().maximumSize(1_000_000).build();
+
+	private final IdBlock questionIds = new IdBlock("question_seq");
+	private final IdBlock answerIds = new IdBlock("answer_seq");
+	private final IdBlock userIdBlock = new IdBlock("site_user_seq");
+
+	@Value("${sbb.import.file:}")
+	private String file;
+
+	// 같은 파일을 이어서 처리할 때 사용하는 작업 이름 (기본값: 파일명)
+	@Value("${sbb.import.job:}")
+	private String job;
+
+	@Value("${sbb.import.batch-size:1000}")
+	private int batchSize;
+
+	private long questions;
+	private long answers;
+	private long votes;
+	private long users;
+	private long skipped;
+
+	public BulkImporter(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+			TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws IOException {
+		if (this.file.isBlank()) {
+			log.warn("sbb.import.file is not set, import skipped");
+			return;
+		}
+		Path path = Path.of(this.file);
+		String jobName = this.job.isBlank() ? path.getFileName().toString() : this.job;
+		createTables();
+		long checkpoint = checkpoint(jobName);
+		if (checkpoint > 0) {
+			log.info("resuming import '{}' after line {}", jobName, checkpoint);
+		}
+
+		long start = System.currentTimeMillis();
+		long lineNumber = 0;
+		List<ImportRecord> batch = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (lineNumber <= checkpoint || line.isBlank()) {
+					continue;
+				}
+				try {
+					batch.add(this.objectMapper.readValue(line, ImportRecord.class));
+				} catch (JsonProcessingException e) {
+					log.warn("line {} skipped: {}", lineNumber, e.getOriginalMessage());
+					this.skipped++;
+				}
+				if (batch.size() >= this.batchSize) {
+					write(jobName, batch, lineNumber);
+					batch.clear();
+					log.info("line {}: questions={}, answers={}, votes={}, users={}, skipped={} ({} lines/s)",
+							lineNumber, this.questions, this.answers, this.votes, this.users, this.skipped,
+							(lineNumber - checkpoint) * 1000 / Math.max(System.currentTimeMillis() - start, 1));
+				}
+			}
+		}
+		write(jobName, batch, lineNumber);
+		log.info("import '{}' finished at line {}: questions={}, answers={}, votes={}, users={}, skipped={} in {} ms",
+				jobName, lineNumber, this.questions, this.answers, this.votes, this.users, this.skipped,
+				System.currentTimeMillis() - start);
+	}
+
+	// 한 배치를 하나의 트랜잭션으로 저장한다. 실패하면 캐시를 비우고 예외를 던진다. (다시 실행하면 체크포인트부터 이어서 처리)
+	private void write(String jobName, List<ImportRecord> batch, long lastLine) {
+		try {
+			this.transactionTemplate.executeWithoutResult(status -> writeBatch(jobName, batch, lastLine));
+		} catch (RuntimeException e) {
+			this.userIds.invalidateAll();
+			this.mappedIds.invalidateAll();
+			log.error("import '{}' failed in the batch ending at line {}, rerun to resume", jobName, lastLine);
+			throw e;
+		}
+	}
+
+	private void writeBatch(String jobName, List<ImportRecord> batch, long lastLine) {
+		Map<String, Long> userIds = resolveUsers(batch);
+		Set<String> referenced = new HashSet<>();
+		for (ImportRecord r : batch) {
+			if (r.question() != null) {
+				referenced.add("q:" + r.question());
+			}
+			if (r.answer() != null) {
+				referenced.add("a:" + r.answer());
+			}
+		}
+		Map<String, Long> mappedIds = resolveMappings(referenced);
+
+		List<Object[]> questionRows = new ArrayList<>();
+		List<Object[]> answerRows = new ArrayList<>();
+		List<Object[]> questionVoterRows = new ArrayList<>();
+		List<Object[]> answerVoterRows = new ArrayList<>();
+		List<Object[]> mappingRows = new ArrayList<>();
+		for (ImportRecord r : batch) {
+			switch (r.type() != null ? r.type() : "") {
+			case "question" -> {
+				long id = this.questionIds.next();
+				questionRows.add(new Object[] { id, r.subject(), r.content(), timestamp(r.createDate()), userIds.get(r.author()) });
+				map("q:" + r.id(), id, mappedIds, mappingRows);
+			}
+			case "answer" -> {
+				Long questionId = mappedIds.get("q:" + r.question());
+				if (questionId == null) {
+					skip(r, "unknown question");
+					continue;
+				}
+				long id = this.answerIds.next();
+				answerRows.add(new Object[] { id, r.content(), timestamp(r.createDate()), questionId, userIds.get(r.author()) });
+				map("a:" + r.id(), id, mappedIds, mappingRows);
+			}
+			case "vote" -> {
+				Long voterId = userIds.get(r.voter());
+				Long targetId = r.answer() != null ? mappedIds.get("a:" + r.answer()) : mappedIds.get("q:" + r.question());
+				if (voterId == null || targetId == null) {
+					skip(r, "unknown vote target or voter");
+					continue;
+				}
+				(r.answer() != null ? answerVoterRows : questionVoterRows).add(new Object[] { targetId, voterId, targetId, voterId });
+			}
+			default -> skip(r, "unknown type");
+			}
+		}
+
+		// 외래키 순서대로 넣는다.
+		batch("insert into question (id, subject, content, create_date, author_id, answer_count, vote_count) values (?, ?, ?, ?, ?, 0, 0)", questionRows);
+		batch("insert into answer (id, content, create_date, question_id, author_id, vote_count) values (?, ?, ?, ?, ?, 0)", answerRows);
+		// 같은 사용자의 중복 추천은 무시한다. (QuestionRepository.insertVoter와 같은 조건부 INSERT)
+		batch("insert into question_voter (question_id, voter_id) select cast(? as integer), cast(? as bigint) "
+				+ "where not exists (select 1 from question_voter where question_id = ? and voter_id = ?)", questionVoterRows);
+		batch("insert into answer_voter (answer_id, voter_id) select cast(? as integer), cast(? as bigint) "
+				+ "where not exists (select 1 from answer_voter where answer_id = ? and voter_id = ?)", answerVoterRows);
+		batch("insert into import_mapping (legacy_key, new_id) values (?, ?)", mappingRows);
+		this.jdbcTemplate.update("merge into import_checkpoint (job, line, updated_at) key (job) values (?, ?, ?)",
+				jobName, lastLine, Timestamp.valueOf(LocalDateTime.now()));
+
+		this.questions += questionRows.size();
+		this.answers += answerRows.size();
+		this.votes += questionVoterRows.size() + answerVoterRows.size();
+	}
+
+	// 배치에 나오는 사용자명 -> id (캐시, DB 순으로 찾고 DB에도 없는 사용자는 새로 만든다.)
+	private Map<String, Long> resolveUsers(List<ImportRecord> batch) {
+		Map<String, Long> resolved = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+		for (ImportRecord r : batch) {
+			for (String username : new String[] { r.author(), r.voter() }) {
+				if (username == null || resolved.containsKey(username)) {
+					continue;
+				}
+				Long id = this.userIds.getIfPresent(username);
+				if (id != null) {
+					resolved.put(username, id);
+				} else {
+					missing.add(username);
+				}
+			}
+		}
+		for (List<String> chunk : chunks(missing)) {
+			this.namedParameterJdbcTemplate.query("select id, username from site_user where username in (:usernames)",
+					Map.of("usernames", chunk),
+					rs -> {
+						resolved.put(rs.getString("username"), rs.getLong("id"));
+					});
+		}
+		List<Object[]> rows = new ArrayList<>();
+		for (String username : missing) {
+			if (!resolved.containsKey(username)) {
+				long id = this.userIdBlock.next();
+				rows.add(new Object[] { id, username, NO_PASSWORD, username + "@import.invalid" });
+				resolved.put(username, id);
+			}
+		}
+		batch("insert into site_user (id, username, password, email) values (?, ?, ?, ?)", rows);
+		this.users += rows.size();
+		this.userIds.putAll(resolved);
+		return resolved;
+	}
+
+	// 원본 키 -> 새 id (이전 배치나 이전 실행에서 가져온 질문/답변은 캐시, import_mapping 순으로 찾는다.)
+	// 배치 안에서 새로 가져온 질문/답변은 map()으로 같은 Map에 더한다.
+	private Map<String, Long> resolveMappings(Set<String> keys) {
+		Map<String, Long> resolved = new HashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (String key : keys) {
+			Long id = this.mappedIds.getIfPresent(key);
+			if (id != null) {
+				resolved.put(key, id);
+			} else {
+				missing.add(key);
+			}
+		}
+		for (List<String> chunk : chunks(missing)) {
+			this.namedParameterJdbcTemplate.query("select legacy_key, new_id from import_mapping where legacy_key in (:keys)",
+					Map.of("keys", chunk),
+					rs -> {
+						resolved.put(rs.getString("legacy_key"), rs.getLong("new_id"));
+					});
+		}
+		this.mappedIds.putAll(resolved);
+		return resolved;
+	}
+
+	private void map(String key, long id, Map<String, Long> mappedIds, List<Object[]> mappingRows) {
+		mappedIds.put(key, id);
+		this.mappedIds.put(key, id);
+		mappingRows.add(new Object[] { key, id });
+	}
+
+	private void skip(ImportRecord r, String reason) {
+		log.debug("record skipped ({}): {}", reason, r);
+		this.skipped++;
+	}
+
+	private void batch(String sql, List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(sql, rows);
+		}
+	}
+
+	private void createTables() {
+		this.jdbcTemplate.execute("create table if not exists import_mapping ("
+				+ "legacy_key varchar(255) primary key, new_id bigint not null)");
+		this.jdbcTemplate.execute("create table if not exists import_checkpoint ("
+				+ "job varchar(255) primary key, line bigint not null, updated_at timestamp)");
+	}
+
+	private long checkpoint(String jobName) {
+		List<Long> lines = this.jdbcTemplate.queryForList("select line from import_checkpoint where job = ?", Long.class, jobName);
+		return lines.isEmpty() ? 0 : lines.get(0);
+	}
+
+	private static Timestamp timestamp(LocalDateTime dateTime) {
+		return Timestamp.valueOf(dateTime != null ? dateTime : LocalDateTime.now());
+	}
+
+	private static List<List<String>> chunks(Iterable<String> values) {
+		List<List<String>> chunks = new ArrayList<>();
+		List<String> chunk = new ArrayList<>();
+		for (String value : values) {
+			chunk.add(value);
+			if (chunk.size() == IN_CLAUSE_SIZE) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	// 시퀀스 값 하나로 ALLOCATION_SIZE개의 id를 사용한다. (Hibernate pooled 방식과 같은 범위)
+	private class IdBlock {
+		private final String sequence;
+		private long next = 1;
+		private long last = 0;
+
+		IdBlock(String sequence) {
+			this.sequence = sequence;
+		}
+
+		long next() {
+			if (this.next > this.last) {
+				Long hi = jdbcTemplate.queryForObject("select next value for " + this.sequence, Long.class);
+				this.last = hi;
+				this.next = hi - IdSequenceAligner.ALLOCATION_SIZE + 1;
+			}
+			return this.next++;
+		}
+	}
+}
@@ -1,16 +1,82 @@
 package com.mysite.sbb;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 @Component // 클래스가 빈으로 등록됨
 public class CommonUtil {
+	// 렌더러 버전: 아래 Parser, HtmlRenderer 설정을 바꾸면 올린다.
+	// 저장된 HTML(contentHtml)의 버전이 다르면 읽을 때 다시 렌더링하고, MarkdownBackfill이 백그라운드에서 갱신한다.
+	public static final int RENDERER_VERSION = 1;
+
+	// Parser, HtmlRenderer는 스레드에 안전하므로 한 번만 만들어 재사용한다.
+	private final Parser parser = Parser.builder().build();
+	// 내용에 포함된 HTML 태그는 이스케이프하고, javascript: 등 안전하지 않은 링크는 제거한다.
+	private final HtmlRenderer renderer = HtmlRenderer.builder()
+			.escapeHtml(true)
+			.sanitizeUrls(true)
+			.build();
+	// 마크다운 내용의 해시 -> 렌더링된 HTML
+	// W-TinyLFU 방식의 Caffeine 캐시를 HTML 길이(문자 수) 기준으로 제한한다.
+	private final Cache<String, String> cache;
+
+	public CommonUtil(MeterRegistry meterRegistry,
+			@Value("${sbb.markdown.cache.max-weight:50000000}") long maxWeight) {
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxWeight)
+				.weigher((String key, String html) -> key.length() + html.length())
+				.recordStats()
+				.build();
+		// 적중/실패/제거 통계를 /actuator/metrics/cache.* 로 확인할 수 있다.
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "markdown");
+	}
+
 	public String markdown(String markdown) {
-		Parser parser = Parser.builder().build();
-		Node document = parser.parse(markdown);
-		HtmlRenderer renderer = HtmlRenderer.builder().build();
-		return renderer.render(document);
+		if (markdown == null) {
+			return "";
+		}
+		return this.cache.get(hash(markdown), key -> render(markdown));
+	}
+
+	// 저장된 HTML이 현재 렌더러 버전이면 그대로 사용한다. (질문/답변 화면)
+	public String markdown(String markdown, String html, int renderVersion) {
+		if (html != null && renderVersion == RENDERER_VERSION) {
+			return html;
+		}
+		return markdown(markdown);
+	}
+
+	public String render(String markdown) {
+		Node document = this.parser.parse(markdown);
+		return this.renderer.render(document);
+	}
+
+	public CacheStats getMarkdownCacheStats() {
+		return this.cache.stats();
+	}
+
+	// 내용 전체를 키로 보관하지 않도록 SHA-256 해시를 키로 사용한다.
+	private static String hash(String markdown) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(markdown.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 }
@@ -0,0 +1,61 @@
+package com.mysite.sbb;
+
+import java.util.function.IntBinaryOperator;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.question.QuestionListVersion;
+import com.mysite.sbb.question.QuestionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// 답변 수, 추천 수 카운터 보정 작업
+// 카운터는 답변 등록/삭제, 추천 시 증감되지만 장애나 직접 수정된 데이터로 실제 행 수와 어긋날 수 있다.
+// 주기적으로(그리고 애플리케이션 시작 시) 실제 행 수와 비교하여 다른 행만 바로잡는다.
+// 전체 테이블을 한 번의 UPDATE로 잠그지 않도록 id 범위(BATCH_SIZE)마다 따로 커밋한다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CountReconciler {
+	private static final int BATCH_SIZE = 1000;
+
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+	private final QuestionListVersion questionListVersion;
+
+	// 애플리케이션 시작 시 요청 처리를 막지 않도록 별도 스레드(applicationTaskExecutor)에서 실행한다.
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void reconcileOnStartup() {
+		reconcile();
+	}
+
+	@Scheduled(cron = "${sbb.counter.reconcile-cron:0 0 4 * * *}")
+	public void reconcile() {
+		int questionMaxId = this.questionRepository.findMaxId();
+		int answerCounts = reconcileInBatches(questionMaxId, this.questionRepository::reconcileAnswerCount);
+		int questionVotes = reconcileInBatches(questionMaxId, this.questionRepository::reconcileVoteCount);
+		int answerVotes = reconcileInBatches(this.answerRepository.findMaxId(), this.answerRepository::reconcileVoteCount);
+		if (answerCounts + questionVotes + answerVotes > 0) {
+			this.questionListVersion.increment();
+			log.warn("counter drift repaired: question.answerCount={}, question.voteCount={}, answer.voteCount={}",
+					answerCounts, questionVotes, answerVotes);
+		}
+	}
+
+	// id 범위 (afterId, afterId + BATCH_SIZE]마다 보정하고 바로잡은 행 수를 반환한다.
+	// 시작할 때의 최대 id까지만 본다. (그 뒤에 추가된 행은 카운터와 함께 만들어진다.)
+	private static int reconcileInBatches(int maxId, IntBinaryOperator batch) {
+		int repaired = 0;
+		for (int afterId = 0; afterId < maxId; afterId += BATCH_SIZE) {
+			repaired += batch.applyAsInt(afterId, Math.min(afterId + BATCH_SIZE, maxId));
+		}
+		return repaired;
+	}
+}
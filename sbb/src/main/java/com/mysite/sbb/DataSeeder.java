@@ -0,0 +1,214 @@
+package com.mysite.sbb;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/* 부하 테스트용 대량 데이터 생성 (seed 프로파일에서만 동작)
+ * 실행: gradle bootRun --args='--spring.profiles.active=seed'  (설정값은 application-seed.properties)
+ * - JPA 대신 JdbcTemplate 배치 INSERT로 id를 직접 지정해 넣고, 끝나면 id 시퀀스를 맞춘다. (IdSequenceAligner)
+ * - 실제 서비스처럼 분포를 치우치게 만든다.
+ * 	일부 질문(hot-ratio)에 답변과 추천이 몰리고, 최근 질문일수록 추천을 많이 받으며, 일부 글(long-ratio)은 긴 마크다운이다.
+ * - 답변 수, 추천 수 카운터도 함께 채운다. 검색 색인과 카운터 보정은 시작 완료(ApplicationReadyEvent) 후 평소처럼 실행된다.
+ * - 모든 사용자는 seed{n} / password 로 로그인할 수 있다.
+ */
+@Slf4j
+@Profile("seed")
+@Component
+public class DataSeeder implements ApplicationRunner {
+	private static final int BATCH_SIZE = 1000;
+	private static final String[] WORDS = { "스프링", "부트", "질문", "답변", "페이징", "검색", "트랜잭션", "캐시", "쿼리",
+			"엔티티", "리포지터리", "템플릿", "로그인", "spring", "boot", "jpa", "hibernate", "thymeleaf", "security",
+			"index", "h2", "gradle", "test", "entity", "controller", "service" };
+
+	private final JdbcTemplate jdbcTemplate;
+	private final PasswordEncoder passwordEncoder;
+	private final IdSequenceAligner idSequenceAligner;
+	private final Random random;
+
+	@Value("${sbb.seed.users:10000}")
+	private int users;
+
+	@Value("${sbb.seed.questions:1000000}")
+	private int questions;
+
+	// 보통 질문의 평균 답변 수
+	@Value("${sbb.seed.answers-per-question:3}")
+	private int answersPerQuestion;
+
+	// 답변과 추천이 몰리는 질문의 비율과 그 질문의 평균 답변 수
+	@Value("${sbb.seed.hot-ratio:0.001}")
+	private double hotRatio;
+
+	@Value("${sbb.seed.hot-answers:500}")
+	private int hotAnswers;
+
+	// 전체 질문 추천 수 (질문 하나에 최대 users개)
+	@Value("${sbb.seed.votes:2000000}")
+	private int votes;
+
+	// 긴 마크다운(코드 블록, 목록 포함)으로 작성되는 글의 비율
+	@Value("${sbb.seed.long-ratio:0.05}")
+	private double longRatio;
+
+	@Value("${sbb.seed.password:password}")
+	private String password;
+
+	public DataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, IdSequenceAligner idSequenceAligner,
+			@Value("${sbb.seed.random-seed:42}") long randomSeed) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.passwordEncoder = passwordEncoder;
+		this.idSequenceAligner = idSequenceAligner;
+		this.random = new Random(randomSeed);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Integer seeded = this.jdbcTemplate.queryForObject("select count(*) from site_user where username = 'seed0'", Integer.class);
+		if (seeded != null && seeded > 0) {
+			log.info("seed data already exists, skipped");
+			return;
+		}
+		long start = System.currentTimeMillis();
+		long userBase = maxId("site_user");
+		long questionBase = maxId("question");
+		long answerBase = maxId("answer");
+
+		seedUsers(userBase);
+		long answers = seedQuestions(userBase, questionBase, answerBase);
+
+		this.idSequenceAligner.align();
+		log.info("seeded {} users, {} questions, {} answers in {} ms",
+				this.users, this.questions, answers, System.currentTimeMillis() - start);
+	}
+
+	private void seedUsers(long userBase) {
+		String encoded = this.passwordEncoder.encode(this.password); // BCrypt는 느리므로 한 번만 암호화해서 사용한다.
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < this.users; i++) {
+			rows.add(new Object[] { userBase + i + 1, "seed" + i, encoded, "seed" + i + "@sbb.com" });
+			flushIfFull("insert into site_user (id, username, password, email) values (?, ?, ?, ?)", rows);
+		}
+		flush("insert into site_user (id, username, password, email) values (?, ?, ?, ?)", rows);
+	}
+
+	// 질문, 답변, 추천을 질문 단위로 생성한다. 생성한 답변 수를 반환한다.
+	private long seedQuestions(long userBase, long questionBase, long answerBase) {
+		String questionSql = "insert into question (id, subject, content, create_date, author_id, answer_count, vote_count) values (?, ?, ?, ?, ?, ?, ?)";
+		String answerSql = "insert into answer (id, content, create_date, question_id, author_id, vote_count) values (?, ?, ?, ?, ?, 0)";
+		String voterSql = "insert into question_voter (question_id, voter_id) values (?, ?)";
+		List<Object[]> questionRows = new ArrayList<>();
+		List<Object[]> answerRows = new ArrayList<>();
+		List<Object[]> voterRows = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		double averageVotes = (double) this.votes / this.questions;
+		long answerId = answerBase;
+		for (int i = 0; i < this.questions; i++) {
+			long questionId = questionBase + i + 1;
+			// 질문은 1분 간격으로 작성된 것으로 하고 마지막 질문이 가장 최근이다.
+			LocalDateTime createDate = now.minusMinutes(this.questions - i);
+			boolean hot = this.random.nextDouble() < this.hotRatio;
+			int answerCount = hot ? skewed(this.hotAnswers) : skewed(this.answersPerQuestion);
+			// 최근 질문일수록, 답변이 많은 질문일수록 추천을 많이 받는다.
+			double recency = (double) (i + 1) / this.questions;
+			int voteCount = Math.min(this.users, skewed(averageVotes * 2 * recency * (hot ? 50 : 1)));
+
+			questionRows.add(new Object[] { questionId, sentence(8), content(), Timestamp.valueOf(createDate),
+					author(userBase), answerCount, voteCount });
+			for (int j = 0; j < answerCount; j++) {
+				answerRows.add(new Object[] { ++answerId, content(), Timestamp.valueOf(createDate.plusSeconds(j + 1)),
+						questionId, author(userBase) });
+			}
+			int firstVoter = this.random.nextInt(this.users);
+			for (int j = 0; j < voteCount; j++) {
+				voterRows.add(new Object[] { questionId, userBase + (firstVoter + j) % this.users + 1 });
+			}
+
+			// 외래키 순서: 질문을 먼저 넣는다.
+			if (questionRows.size() >= BATCH_SIZE || answerRows.size() >= BATCH_SIZE || voterRows.size() >= BATCH_SIZE) {
+				flush(questionSql, questionRows);
+				flush(answerSql, answerRows);
+				flush(voterSql, voterRows);
+			}
+			if ((i + 1) % 100_000 == 0) {
+				log.info("seeded {} / {} questions", i + 1, this.questions);
+			}
+		}
+		flush(questionSql, questionRows);
+		flush(answerSql, answerRows);
+		flush(voterSql, voterRows);
+		return answerId - answerBase;
+	}
+
+	// 평균이 mean인 치우친 분포 (지수 분포: 대부분은 작고 일부가 크다.)
+	private int skewed(double mean) {
+		if (mean <= 0) {
+			return 0;
+		}
+		return (int) (-mean * Math.log(1 - this.random.nextDouble()));
+	}
+
+	private long author(long userBase) {
+		// 일부 사용자가 글을 많이 쓴다.
+		return userBase + (long) (this.users * Math.pow(this.random.nextDouble(), 2)) + 1;
+	}
+
+	private String content() {
+		if (this.random.nextDouble() >= this.longRatio) {
+			return sentence(30 + this.random.nextInt(60));
+		}
+		StringBuilder sb = new StringBuilder();
+		int sections = 5 + this.random.nextInt(20);
+		for (int i = 0; i < sections; i++) {
+			sb.append("## ").append(sentence(4)).append("\n\n")
+				.append(sentence(60)).append("\n\n")
+				.append("- ").append(sentence(5)).append("\n- ").append(sentence(5)).append("\n\n")
+				.append("```java\n")
+				.append("Pageable pageable = PageRequest.of(page, 10, Sort.by(\"createDate\").descending());\n")
+				.append("return this.questionRepository.findAll(pageable);\n")
+				.append("```\n\n");
+		}
+		return sb.toString();
+	}
+
+	private String sentence(int words) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				sb.append(' ');
+			}
+			sb.append(WORDS[this.random.nextInt(WORDS.length)]);
+		}
+		return sb.toString();
+	}
+
+	private long maxId(String table) {
+		Long max = this.jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+		return max != null ? max : 0;
+	}
+
+	private void flushIfFull(String sql, List<Object[]> rows) {
+		if (rows.size() >= BATCH_SIZE) {
+			flush(sql, rows);
+		}
+	}
+
+	private void flush(String sql, List<Object[]> rows) {
+		if (!rows.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(sql, rows);
+			rows.clear();
+		}
+	}
+}
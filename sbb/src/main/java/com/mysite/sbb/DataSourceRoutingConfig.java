@@ -0,0 +1,67 @@
+package com.mysite.sbb;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// 읽기/쓰기 분리 설정 (sbb.datasource.replica.url이 있을 때만 사용한다. replica 프로파일 참고)
+// spring.datasource.* 는 primary, sbb.datasource.replica.* 는 replica 연결 풀이 된다.
+@Configuration
+@ConditionalOnProperty("sbb.datasource.replica.url")
+public class DataSourceRoutingConfig {
+	@Bean
+	HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	@Bean
+	HikariDataSource replicaDataSource(DataSourceProperties properties,
+			@Value("${sbb.datasource.replica.url}") String url,
+			@Value("${sbb.datasource.replica.username:${spring.datasource.username:}}") String username,
+			@Value("${sbb.datasource.replica.password:${spring.datasource.password:}}") String password) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.driverClassName(properties.determineDriverClassName())
+				.url(url)
+				.username(username)
+				.password(password)
+				.build();
+		dataSource.setPoolName("replica");
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	// JPA, JdbcTemplate 등이 사용하는 DataSource
+	@Bean
+	@Primary
+	DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Value("${sbb.datasource.replica.sticky-window:5s}") Duration stickyWindow) {
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, stickyWindow));
+	}
+
+	// 기본 설정(DELAYED_ACQUISITION_AND_HOLD)은 요청(open-in-view) 동안 처음 가져온 연결을 계속 사용하므로
+	// 트랜잭션이 끝나면 연결을 반환해서 트랜잭션마다 primary/replica를 다시 고르도록 한다.
+	@Bean
+	HibernatePropertiesCustomizer connectionHandlingCustomizer() {
+		return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+				PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+}
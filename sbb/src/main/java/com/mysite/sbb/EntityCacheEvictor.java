@@ -0,0 +1,30 @@
+package com.mysite.sbb;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+// 2차 캐시 항목 제거
+// 카운터 증감처럼 엔티티를 거치지 않는 네이티브 UPDATE는 Hibernate가 어떤 행이 바뀌었는지 알 수 없어
+// 영역 전체를 비우게 된다. 이런 쿼리는 별도 query space로 실행하고, 바뀐 엔티티만 여기서 제거한다.
+@RequiredArgsConstructor
+@Component
+public class EntityCacheEvictor {
+	private final EntityManagerFactory entityManagerFactory;
+
+	public void evict(Class<?> entityClass, Object id) {
+		this.entityManagerFactory.getCache().evict(entityClass, id);
+		// 커밋 전에 다른 요청이 이전 값을 다시 캐시할 수 있으므로 커밋 후에 한 번 더 제거한다.
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					entityManagerFactory.getCache().evict(entityClass, id);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.mysite.sbb;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// id 시퀀스 보정
+// Question, Answer, SiteUser의 id는 시퀀스(pooled, ALLOCATION_SIZE개씩 할당)로 생성한다.
+// IDENTITY로 만들어진 기존 데이터나 JDBC로 직접 넣은 데이터(DataSeeder)의 id와 겹치지 않도록 시퀀스를 현재 최대 id 뒤로 옮긴다.
+// 시퀀스는 앞으로만 옮긴다. 이미 실행 중인 애플리케이션(또는 BulkImporter)이 받아 둔 id 범위를 다시 나눠주지 않도록
+// 시퀀스가 이미 최대 id 뒤에 있으면 그대로 두고, 옮길 때도 현재 시퀀스 값보다 뒤로만 옮긴다.
+// EntityManagerFactory(Flyway 마이그레이션, 스키마 검증) 이후, 요청을 받기 전에 실행된다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class IdSequenceAligner implements InitializingBean {
+	public static final int ALLOCATION_SIZE = 50;
+
+	private static final String[][] SEQUENCES = {
+			{ "question", "question_seq" },
+			{ "answer", "answer_seq" },
+			{ "site_user", "site_user_seq" } };
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory; // 스키마(시퀀스)가 만들어진 뒤에 실행되도록 의존한다.
+
+	@Override
+	public void afterPropertiesSet() {
+		align();
+	}
+
+	public void align() {
+		for (String[] sequence : SEQUENCES) {
+			Long max = this.jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + sequence[0], Long.class);
+			long maxId = max != null ? max : 0;
+			// 다음에 나올 시퀀스 값 (H2: base_value, 값을 미리 캐시한 경우 실제보다 크므로 안전한 쪽이다.)
+			Long nextValue = this.jdbcTemplate.queryForObject(
+					"select base_value from information_schema.sequences where sequence_name = ?", Long.class,
+					sequence[1].toUpperCase());
+			long next = nextValue != null ? nextValue : 1;
+			// pooled 방식은 시퀀스 값 N을 받으면 (N - ALLOCATION_SIZE, N] 범위의 id를 사용한다.
+			// 빈 테이블도 ALLOCATION_SIZE + 1부터 시작하게 하여 첫 값(1)에 대한 예외 처리 없이 항상 같은 규칙으로 할당되게 한다. (BulkImporter)
+			if (next - ALLOCATION_SIZE >= maxId) { // 다음 범위가 최대 id 뒤에서 시작한다.
+				log.debug("{} already past max id {} (next {})", sequence[1], maxId, next);
+				continue;
+			}
+			// next보다 작은 값은 이미 다른 프로세스가 받았을 수 있으므로 최대 id와 next - 1 중 큰 값 뒤로 옮긴다.
+			long restart = Math.max(next - 1, maxId) + ALLOCATION_SIZE + 1;
+			this.jdbcTemplate.execute("alter sequence " + sequence[1] + " restart with " + restart);
+			log.debug("{} restarted with {}", sequence[1], restart);
+		}
+	}
+}
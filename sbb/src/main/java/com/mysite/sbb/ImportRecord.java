@@ -0,0 +1,20 @@
+package com.mysite.sbb;
+
+import java.time.LocalDateTime;
+
+// 대량 가져오기(BulkImporter) 입력의 한 줄 (NDJSON)
+// type별로 사용하는 필드가 다르다. id, question, answer는 원본(이전 게시판)의 키이고 author, voter는 사용자명이다.
+//  {"type":"question","id":"q1","subject":"...","content":"...","author":"kim","createDate":"2020-01-01T10:00:00"}
+//  {"type":"answer","id":"a1","question":"q1","content":"...","author":"lee","createDate":"2020-01-01T11:00:00"}
+//  {"type":"vote","question":"q1","voter":"park"}  또는  {"type":"vote","answer":"a1","voter":"park"}
+public record ImportRecord(
+		String type,
+		String id,
+		String subject,
+		String content,
+		String author,
+		LocalDateTime createDate,
+		String question,
+		String answer,
+		String voter) {
+}
@@ -0,0 +1,16 @@
+package com.mysite.sbb;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 지연 초기화(spring.main.lazy-initialization, fast 프로파일)에서 제외할 빈
+// @Scheduled, @EventListener 빈은 스프링 부트가 알아서 처리하지만, 다른 빈이 참조하지 않는 초기화용 빈은 한 번도 만들어지지 않는다.
+@Configuration
+public class LazyInitializationConfig {
+	@Bean
+	static LazyInitializationExcludeFilter startupBeans() {
+		return (beanName, beanDefinition, beanType) -> IdSequenceAligner.class.isAssignableFrom(beanType) // 요청 전에 시퀀스를 보정해야 한다.
+				|| "queryStatsEventListeners".equals(beanName); // 첫 요청부터 쿼리 통계를 수집한다. (QueryStatsConfig)
+	}
+}
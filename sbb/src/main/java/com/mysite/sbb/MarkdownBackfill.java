@@ -0,0 +1,103 @@
+package com.mysite.sbb;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 저장된 질문/답변 HTML(contentHtml)을 현재 렌더러 버전으로 다시 만드는 백그라운드 작업
+// 렌더러 버전(CommonUtil.RENDERER_VERSION)이 바뀐 뒤나 JDBC로 직접 넣은 데이터(DataSeeder, BulkImporter)가 대상이다.
+// 한 번에 batch-size개씩 처리하고 실행 사이에 delay만큼 쉰다. 갱신되기 전의 행은 화면에서 읽을 때 렌더링한다.
+// 끝까지 처리한 뒤에도 rescan-interval마다 마지막 id 다음부터 다시 찾는다. (실행 중에 JDBC로 넣은 행)
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sbb.markdown.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class MarkdownBackfill {
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+	private final CommonUtil commonUtil;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final int batchSize;
+	private final Duration rescanInterval;
+
+	// 스케줄러 스레드에서만 사용한다. (fixedDelay 작업은 겹쳐서 실행되지 않는다.)
+	private int lastQuestionId;
+	private int lastAnswerId;
+	private boolean questionsDone;
+	private boolean answersDone;
+	private int rendered;
+	private long doneAt; // 마지막으로 끝까지 처리한 시각 (System.nanoTime)
+
+	public MarkdownBackfill(QuestionRepository questionRepository, AnswerRepository answerRepository,
+			CommonUtil commonUtil, EntityCacheEvictor entityCacheEvictor,
+			@Value("${sbb.markdown.backfill.batch-size:100}") int batchSize,
+			@Value("${sbb.markdown.backfill.rescan-interval:1m}") Duration rescanInterval) {
+		this.questionRepository = questionRepository;
+		this.answerRepository = answerRepository;
+		this.commonUtil = commonUtil;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.batchSize = batchSize;
+		this.rescanInterval = rescanInterval;
+	}
+
+	@Scheduled(initialDelayString = "${sbb.markdown.backfill.delay:1s}", fixedDelayString = "${sbb.markdown.backfill.delay:1s}")
+	public void run() {
+		if (!this.questionsDone) {
+			this.questionsDone = backfillQuestions();
+		} else if (!this.answersDone) {
+			this.answersDone = backfillAnswers();
+			if (this.answersDone) {
+				if (this.rendered > 0) {
+					log.info("markdown backfill finished: {} rows rendered with renderer version {}",
+							this.rendered, CommonUtil.RENDERER_VERSION);
+				}
+				this.rendered = 0;
+				this.doneAt = System.nanoTime();
+			}
+		} else if (System.nanoTime() - this.doneAt >= this.rescanInterval.toNanos()) {
+			// 커서(lastQuestionId, lastAnswerId)는 그대로 두고 그 뒤에 추가된 행을 찾는다.
+			this.questionsDone = false;
+			this.answersDone = false;
+		}
+	}
+
+	// 마지막 배치이면 true
+	private boolean backfillQuestions() {
+		List<QuestionRepository.RenderSource> sources = this.questionRepository.findRenderSources(
+				this.lastQuestionId, CommonUtil.RENDERER_VERSION, PageRequest.of(0, this.batchSize));
+		for (QuestionRepository.RenderSource source : sources) {
+			String html = this.commonUtil.render(source.getContent() != null ? source.getContent() : "");
+			if (this.questionRepository.updateContentHtml(source.getId(), html, CommonUtil.RENDERER_VERSION) > 0) {
+				this.entityCacheEvictor.evict(Question.class, source.getId());
+				this.rendered++;
+			}
+			this.lastQuestionId = source.getId();
+		}
+		return sources.size() < this.batchSize;
+	}
+
+	private boolean backfillAnswers() {
+		List<AnswerRepository.RenderSource> sources = this.answerRepository.findRenderSources(
+				this.lastAnswerId, CommonUtil.RENDERER_VERSION, PageRequest.of(0, this.batchSize));
+		for (AnswerRepository.RenderSource source : sources) {
+			String html = this.commonUtil.render(source.getContent() != null ? source.getContent() : "");
+			if (this.answerRepository.updateContentHtml(source.getId(), html, CommonUtil.RENDERER_VERSION) > 0) {
+				this.entityCacheEvictor.evict(Answer.class, source.getId());
+				this.rendered++;
+			}
+			this.lastAnswerId = source.getId();
+		}
+		return sources.size() < this.batchSize;
+	}
+}
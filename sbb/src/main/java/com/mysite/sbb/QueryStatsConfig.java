@@ -0,0 +1,37 @@
+package com.mysite.sbb;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 요청별 쿼리 통계(RequestQueryStats)를 위한 Hibernate 설정
+@Configuration
+public class QueryStatsConfig {
+	// SQL 실행 횟수와 JDBC 실행 시간 (Hibernate가 클래스 이름으로 생성한다.)
+	@Bean
+	HibernatePropertiesCustomizer queryStatsCustomizer() {
+		return properties -> {
+			properties.put(AvailableSettings.STATEMENT_INSPECTOR, QueryStatsListener.class.getName());
+			properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryStatsListener.class.getName());
+		};
+	}
+
+	// 엔티티 로딩과 컬렉션 초기화 횟수 (기본 리스너 뒤에 추가한다.)
+	@Bean
+	InitializingBean queryStatsEventListeners(EntityManagerFactory entityManagerFactory) {
+		return () -> {
+			QueryStatsListener listener = new QueryStatsListener();
+			EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+					.getServiceRegistry().getService(EventListenerRegistry.class);
+			registry.appendListeners(EventType.POST_LOAD, listener);
+			registry.appendListeners(EventType.INIT_COLLECTION, listener);
+		};
+	}
+}
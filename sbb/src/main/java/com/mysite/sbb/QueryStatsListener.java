@@ -0,0 +1,76 @@
+package com.mysite.sbb;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// 현재 요청의 RequestQueryStats에 Hibernate 작업을 기록한다. (QueryStatsConfig에서 등록)
+// - StatementInspector: 실행할 SQL
+// - SessionEventListener: JDBC 실행 시간
+// - PostLoad/InitializeCollection 이벤트: 로딩된 엔티티, 초기화된 컬렉션
+public class QueryStatsListener extends BaseSessionEventListener
+		implements StatementInspector, PostLoadEventListener, InitializeCollectionEventListener {
+	private static final long serialVersionUID = 1L;
+
+	@Override
+	public String inspect(String sql) {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.statement(sql);
+		}
+		return sql;
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		executeStart();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		executeEnd();
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		executeStart();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		executeEnd();
+	}
+
+	@Override
+	public void onPostLoad(PostLoadEvent event) {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.entityLoaded();
+		}
+	}
+
+	@Override
+	public void onInitializeCollection(InitializeCollectionEvent event) {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.collectionInitialized();
+		}
+	}
+
+	private static void executeStart() {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.executeStart();
+		}
+	}
+
+	private static void executeEnd() {
+		RequestQueryStats stats = RequestQueryStats.current();
+		if (stats != null) {
+			stats.executeEnd();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.mysite.sbb;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.question.QuestionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// 삭제 표시된 질문(QuestionService.delete)의 실제 삭제
+// 엔티티를 읽지 않고 답변 추천 -> 답변 순서로 batch-size개씩 집합 단위 DELETE를 실행한다.
+// 한 번 실행할 때 한 배치만 처리하고 delay만큼 쉬므로 답변이 많은 질문도 잠금을 오래 잡지 않는다.
+// 답변이 모두 지워지면 질문의 추천과 질문 행을 지운다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sbb.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class QuestionPurger {
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+
+	public QuestionPurger(QuestionRepository questionRepository, AnswerRepository answerRepository,
+			EntityCacheEvictor entityCacheEvictor, PlatformTransactionManager transactionManager,
+			@Value("${sbb.purge.batch-size:500}") int batchSize) {
+		this.questionRepository = questionRepository;
+		this.answerRepository = answerRepository;
+		this.entityCacheEvictor = entityCacheEvictor;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+	}
+
+	@Scheduled(initialDelayString = "${sbb.purge.delay:1s}", fixedDelayString = "${sbb.purge.delay:1s}")
+	public void purge() {
+		List<Integer> questionIds = this.questionRepository.findDeletedIds(1);
+		if (questionIds.isEmpty()) {
+			return;
+		}
+		Integer questionId = questionIds.get(0);
+		List<Integer> answerIds = this.answerRepository.findIdsByQuestionId(questionId, this.batchSize);
+		if (!answerIds.isEmpty()) {
+			this.transactionTemplate.executeWithoutResult(status -> {
+				this.answerRepository.deleteVoters(answerIds);
+				this.answerRepository.purgeAll(answerIds);
+			});
+			for (Integer answerId : answerIds) {
+				this.entityCacheEvictor.evict(Answer.class, answerId);
+			}
+			return; // 남은 답변은 다음 실행에서 지운다.
+		}
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.questionRepository.deleteVoters(questionId);
+			this.questionRepository.purge(questionId);
+		});
+		log.info("deleted question {} purged", questionId);
+	}
+}
@@ -0,0 +1,59 @@
+package com.mysite.sbb;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica로, 그 외는 primary로 보내는 DataSource
+// 연결을 실제로 가져오는 시점에 트랜잭션의 readOnly 여부가 정해져 있어야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용한다.
+// 쓰기 트랜잭션을 실행한 세션은 stickyWindow 동안 읽기도 primary에서 한다. (복제 지연 중에도 자신이 쓴 글이 보이도록)
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+
+	static final String LAST_WRITE_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".LAST_WRITE";
+
+	private final Duration stickyWindow;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow) {
+		this.stickyWindow = stickyWindow;
+		setTargetDataSources(Map.<Object, Object>of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (TransactionSynchronizationManager.isActualTransactionActive()) {
+				markWrite();
+			}
+			return Route.PRIMARY; // 쓰기 트랜잭션, 트랜잭션 밖의 조회(뷰의 지연 로딩 등)
+		}
+		return wroteRecently() ? Route.PRIMARY : Route.REPLICA;
+	}
+
+	// 요청 처리 중인 스레드에서만 세션에 기록한다. (스케줄 작업 등은 해당 없음)
+	private void markWrite() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis(), RequestAttributes.SCOPE_SESSION);
+		}
+	}
+
+	private boolean wroteRecently() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return false;
+		}
+		return attributes.getAttribute(LAST_WRITE_ATTRIBUTE, RequestAttributes.SCOPE_SESSION) instanceof Long lastWrite
+				&& System.currentTimeMillis() - lastWrite < this.stickyWindow.toMillis();
+	}
+}
@@ -0,0 +1,82 @@
+package com.mysite.sbb;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+// 요청 하나에서 실행된 SQL 수, JDBC 실행 시간, 로딩된 엔티티 수, 초기화된 컬렉션 수
+// RequestQueryStatsFilter가 요청 시작 시 현재 스레드에 등록하고, QueryStatsListener(Hibernate)가 값을 올린다.
+// 요청을 처리하는 스레드에서만 사용하므로 동기화하지 않는다.
+public class RequestQueryStats {
+	// 요청 속성 이름 (테스트에서 요청이 끝난 뒤 값을 확인할 때 사용)
+	public static final String ATTRIBUTE = RequestQueryStats.class.getName();
+
+	private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+	@Getter
+	private int statements;
+	@Getter
+	private long jdbcNanos;
+	@Getter
+	private int entitiesLoaded;
+	@Getter
+	private int collectionsInitialized;
+	// SQL -> 실행 횟수 (N+1 감지용)
+	private final Map<String, Integer> statementCounts = new HashMap<>();
+	private long executeStart;
+
+	static RequestQueryStats start() {
+		RequestQueryStats stats = new RequestQueryStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	static void clear() {
+		CURRENT.remove();
+	}
+
+	// 요청 처리 중이 아니면 null
+	static RequestQueryStats current() {
+		return CURRENT.get();
+	}
+
+	void statement(String sql) {
+		this.statements++;
+		this.statementCounts.merge(sql, 1, Integer::sum);
+	}
+
+	void executeStart() {
+		this.executeStart = System.nanoTime();
+	}
+
+	void executeEnd() {
+		this.jdbcNanos += System.nanoTime() - this.executeStart;
+	}
+
+	void entityLoaded() {
+		this.entitiesLoaded++;
+	}
+
+	void collectionInitialized() {
+		this.collectionsInitialized++;
+	}
+
+	// 같은 SQL이 threshold번 이상 실행된 경우 (지연 로딩으로 인한 N+1 의심)
+	public Map<String, Integer> getRepeatedStatements(int threshold) {
+		Map<String, Integer> repeated = new LinkedHashMap<>();
+		this.statementCounts.forEach((sql, count) -> {
+			if (count >= threshold) {
+				repeated.put(sql, count);
+			}
+		});
+		return repeated;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("statements=%d; jdbc=%.1fms; entities=%d; collections=%d",
+				this.statements, this.jdbcNanos / 1_000_000.0, this.entitiesLoaded, this.collectionsInitialized);
+	}
+}
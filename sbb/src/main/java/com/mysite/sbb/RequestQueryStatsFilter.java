@@ -0,0 +1,98 @@
+package com.mysite.sbb;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+// 요청별 쿼리 통계
+// - 메트릭: sbb.request.statements, sbb.request.jdbc, sbb.request.entities, sbb.request.collections (uri 태그는 요청 매핑 패턴)
+// - 응답 헤더 X-Query-Stats (sbb.query-stats.header=true, dev 프로파일)
+// - 같은 SQL이 sbb.query-stats.n-plus-one-threshold번 이상 실행되면 N+1 의심 로그를 남긴다.
+@Slf4j
+@Component
+public class RequestQueryStatsFilter extends OncePerRequestFilter {
+	public static final String HEADER = "X-Query-Stats";
+
+	private final MeterRegistry meterRegistry;
+	private final boolean headerEnabled;
+	private final int nPlusOneThreshold;
+
+	public RequestQueryStatsFilter(MeterRegistry meterRegistry,
+			@Value("${sbb.query-stats.header:false}") boolean headerEnabled,
+			@Value("${sbb.query-stats.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+		this.meterRegistry = meterRegistry;
+		this.headerEnabled = headerEnabled;
+		this.nPlusOneThreshold = nPlusOneThreshold;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		RequestQueryStats stats = RequestQueryStats.start();
+		request.setAttribute(RequestQueryStats.ATTRIBUTE, stats);
+		StatsHeaderResponse headerResponse = this.headerEnabled ? new StatsHeaderResponse(response, stats) : null;
+		try {
+			filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+		} finally {
+			RequestQueryStats.clear();
+			if (headerResponse != null) {
+				headerResponse.writeHeader();
+			}
+			record(request, stats);
+		}
+	}
+
+	private void record(HttpServletRequest request, RequestQueryStats stats) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+		Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+		DistributionSummary.builder("sbb.request.statements").tags(tags).register(this.meterRegistry)
+				.record(stats.getStatements());
+		Timer.builder("sbb.request.jdbc").tags(tags).register(this.meterRegistry)
+				.record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+		DistributionSummary.builder("sbb.request.entities").tags(tags).register(this.meterRegistry)
+				.record(stats.getEntitiesLoaded());
+		DistributionSummary.builder("sbb.request.collections").tags(tags).register(this.meterRegistry)
+				.record(stats.getCollectionsInitialized());
+		stats.getRepeatedStatements(this.nPlusOneThreshold).forEach((sql, count) ->
+				log.warn("possible N+1 on {} {}: same statement executed {} times\n\t{}", request.getMethod(), uri, count, sql));
+	}
+
+	// 응답이 커밋되기 직전에 헤더를 추가한다. (본문이 버퍼보다 크면 그 시점까지의 값)
+	private static class StatsHeaderResponse extends OnCommittedResponseWrapper {
+		private final RequestQueryStats stats;
+		private boolean written;
+
+		StatsHeaderResponse(HttpServletResponse response, RequestQueryStats stats) {
+			super(response);
+			this.stats = stats;
+		}
+
+		@Override
+		protected void onResponseCommitted() {
+			writeHeader();
+		}
+
+		void writeHeader() {
+			if (!this.written && !getResponse().isCommitted()) {
+				this.written = true;
+				setHeader(HEADER, this.stats.toString());
+			}
+		}
+	}
+}
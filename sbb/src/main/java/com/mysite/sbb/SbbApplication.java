@@ -2,7 +2,11 @@ package com.mysite.sbb;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling // @Scheduled 작업(카운터 보정 등) 활성화
+@EnableAsync // @Async 작업(시작 시 검색 색인 생성 등) 활성화
 @SpringBootApplication
 public class SbbApplication {
 
@@ -0,0 +1,88 @@
+package com.mysite.sbb;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+// 가상 스레드 고정(pinning) 진단
+// synchronized 블록 안에서 I/O로 대기하면 가상 스레드가 캐리어 스레드를 붙잡아 다른 가상 스레드가 실행되지 못한다. (H2, JDBC 드라이버 등)
+// JFR의 jdk.VirtualThreadPinned 이벤트를 받아 발생 위치별 시간을 메트릭(sbb.virtual.pinned)으로 남기고, 위치마다 처음 한 번 스택을 로그로 출력한다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements DisposableBean {
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+	private static final int LOGGED_FRAMES = 15;
+
+	private final MeterRegistry meterRegistry;
+	private final Duration threshold;
+	private final Set<String> reported = ConcurrentHashMap.newKeySet();
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+			@Value("${sbb.virtual.pinned-threshold:20ms}") Duration threshold) {
+		this.meterRegistry = meterRegistry;
+		this.threshold = threshold;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		this.stream = new RecordingStream();
+		this.stream.enable(EVENT).withThreshold(this.threshold).withStackTrace();
+		this.stream.onEvent(EVENT, this::onPinned);
+		this.stream.startAsync();
+		log.info("virtual thread pinning monitor started (threshold {} ms)", this.threshold.toMillis());
+	}
+
+	@Override
+	public void destroy() {
+		if (this.stream != null) {
+			this.stream.close();
+		}
+	}
+
+	private void onPinned(RecordedEvent event) {
+		List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+		String site = site(frames);
+		Timer.builder("sbb.virtual.pinned")
+				.description("Time virtual threads spent pinned to a carrier thread")
+				.tag("site", site)
+				.register(this.meterRegistry)
+				.record(event.getDuration());
+		if (this.reported.add(site)) {
+			log.warn("virtual thread pinned for {} ms at {}\n\t{}", event.getDuration().toMillis(), site,
+					frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::frame).collect(Collectors.joining("\n\t")));
+		}
+	}
+
+	// JDK 내부가 아닌 첫 번째 호출 위치 (예: org.h2.engine.SessionLocal.lock)
+	private static String site(List<RecordedFrame> frames) {
+		for (RecordedFrame frame : frames) {
+			String type = frame.getMethod().getType().getName();
+			if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+				return type + "." + frame.getMethod().getName();
+			}
+		}
+		return frames.isEmpty() ? "unknown" : frame(frames.get(0));
+	}
+
+	private static String frame(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+	}
+}
@@ -3,30 +3,55 @@ package com.mysite.sbb.answer;
 import java.time.LocalDateTime;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.mysite.sbb.IdSequenceAligner;
 import com.mysite.sbb.question.Question;
 import com.mysite.sbb.user.SiteUser;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "answer")
+@DynamicUpdate
 public class Answer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_seq")
+    @SequenceGenerator(name = "answer_seq", sequenceName = "answer_seq", allocationSize = IdSequenceAligner.ALLOCATION_SIZE)
     private Integer id;
 
+    @Lob
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // 내용을 렌더링한 HTML (등록/수정 시 저장, CommonUtil.markdown 참고)
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String contentHtml;
+
+    // contentHtml을 만든 렌더러 버전 (CommonUtil.RENDERER_VERSION)
+    @ColumnDefault("0")
+    private int renderVersion;
+
     private LocalDateTime createDate; 
 
     // answer.getQuestion().getSubject()를 사용해 질문의 제목에 접근할 수 있다.
@@ -44,5 +69,12 @@ public class Answer {
  	
  	// 추천
  	@ManyToMany
+ 	@JoinTable(name = "answer_voter",
+ 			joinColumns = @JoinColumn(name = "answer_id"),
+ 			inverseJoinColumns = @JoinColumn(name = "voter_id"))
     Set<SiteUser> voter;
+ 	
+ 	// 추천 수
+ 	@ColumnDefault("0")
+ 	private int voteCount;
 }
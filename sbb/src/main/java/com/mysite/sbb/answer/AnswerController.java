@@ -36,12 +36,16 @@ public class AnswerController {
 			@Valid AnswerForm answerForm, BindingResult bindingResult, Principal principal) { // 현재 로그인한 사용자의 정보 : 스프링 시큐리티가 제공하는 Principal 객체
 		// @RequestParam : 템플릿 내용에 해당하는 <textarea> name 속성명이 content 이므로 통일한 것
 		Question question = this.questionService.getQuestion(id); // id 값이 없을 경우 404오류
-		SiteUser siteUser = this.userService.getUser(principal.getName());
+		SiteUser siteUser = this.userService.getUser(principal);
 		if (bindingResult.hasErrors()) {
 			model.addAttribute("question", question);
+			model.addAttribute("answerPaging", this.answerService.getList(id, 0, AnswerService.SORT_LATEST));
+			model.addAttribute("answerSort", AnswerService.SORT_LATEST);
+			model.addAttribute("questionId", id);
 			return "question_detail";
 		}
         Answer answer = this.answerService.create(question, answerForm.getContent(), siteUser);
+        // 새 답변은 최신순 첫 페이지에 있다.
         return String.format("redirect:/question/detail/%s#answer_%s", answer.getQuestion().getId(), answer.getId());
 	}
 	
@@ -69,7 +73,7 @@ public class AnswerController {
 			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "수정 권한이 없습니다.");
 		}
 		this.answerService.modify(answer, answerForm.getContent());
-		return String.format("redirect:/question/detail/%s#answer_%s", answer.getQuestion().getId(), answer.getId());
+		return redirectToAnswer(answer);
 	}
 	
 	// 삭제
@@ -89,9 +93,27 @@ public class AnswerController {
     @GetMapping("/vote/{id}")
     public String answerVote(Principal principal, @PathVariable("id") Integer id) {
         Answer answer = this.answerService.getAnswer(id);
-        SiteUser siteUser = this.userService.getUser(principal.getName());
+        SiteUser siteUser = this.userService.getUser(principal);
         this.answerService.vote(answer, siteUser);
-        return String.format("redirect:/question/detail/%s#answer_%s", answer.getQuestion().getId(), answer.getId());
+        return redirectToAnswer(answer);
+    }
+    
+    // 답변 목록 조각(fragment): 질문 상세 화면의 "더 보기"에서 다음 페이지의 답변을 HTML로 가져온다.
+    @GetMapping("/list/{questionId}")
+    public String answerList(Model model, @PathVariable("questionId") Integer questionId,
+    		@RequestParam(value = "page", defaultValue = "0") int page,
+    		@RequestParam(value = "sort", defaultValue = AnswerService.SORT_LATEST) String sort) {
+    	String answerSort = AnswerService.SORT_VOTE.equals(sort) ? AnswerService.SORT_VOTE : AnswerService.SORT_LATEST;
+    	model.addAttribute("answerPaging", this.answerService.getList(questionId, Math.max(page, 0), answerSort));
+    	model.addAttribute("answerSort", answerSort);
+    	model.addAttribute("questionId", questionId);
+    	return "answer_list :: answerListFragment";
+    }
+    
+    // 답변이 있는 페이지(최신순)로 이동한다.
+    private String redirectToAnswer(Answer answer) {
+    	int page = this.answerService.getPageNumber(answer);
+    	return String.format("redirect:/question/detail/%s?answerPage=%s#answer_%s", answer.getQuestion().getId(), page, answer.getId());
     }
 
 }
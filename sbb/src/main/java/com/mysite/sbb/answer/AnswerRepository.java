@@ -1,7 +1,151 @@
 package com.mysite.sbb.answer;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface AnswerRepository extends JpaRepository<Answer, Integer>{
+import com.mysite.sbb.question.QuestionRepository;
 
+import jakarta.persistence.QueryHint;
+
+public interface AnswerRepository extends JpaRepository<Answer, Integer>{
+	// 카운터 UPDATE 전용 query space (QuestionRepository.COUNTER_SPACE 참고)
+	String COUNTER_SPACE = "answer_counter";
+	// 렌더링 HTML 갱신 전용 query space (QuestionRepository.RENDER_SPACE 참고)
+	String RENDER_SPACE = "answer_render";
+	// 삭제된 질문의 답변 정리(QuestionPurger) 전용 query space
+	String PURGE_SPACE = "answer_purge";
+	
+	// 질문의 답변을 페이지 단위로 조회한다. (작성자는 함께 조회, 전체 건수는 Question.answerCount 사용)
+	// 쿼리 캐시에는 답변 id만 저장되고 엔티티는 2차 캐시에서 가져온다. (answer, question 테이블이 변경되면 무효화된다.)
+	// a.question.id 조건만으로는 Question의 @SQLRestriction이 적용되지 않으므로 삭제 표시된 질문을 직접 제외한다.
+	@EntityGraph(attributePaths = {"author"})
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	@Query("select a from Answer a "
+			+ "join a.question q "
+			+ "where q.id = :questionId and q.deleteDate is null")
+	Slice<Answer> findByQuestionId(@Param("questionId") Integer questionId, Pageable pageable);
+	
+	// 삭제 표시되지 않은 질문의 답변 (답변 수정/삭제/추천용, findByQuestionId와 같은 이유로 직접 제외한다.)
+	@Query("select a from Answer a "
+			+ "join a.question q "
+			+ "where a.id = :id and q.deleteDate is null")
+	Optional<Answer> findActiveById(@Param("id") Integer id);
+	
+	// 최신순 정렬에서 해당 답변보다 앞에 오는 답변 수 (답변이 있는 페이지 번호 계산용)
+	@Query("select count(a) from Answer a "
+			+ "where a.question.id = :questionId "
+			+ "and (a.createDate > :createDate or (a.createDate = :createDate and a.id > :id))")
+	long countNewer(@Param("questionId") Integer questionId, @Param("createDate") LocalDateTime createDate, @Param("id") Integer id);
+	
+	// 내보내기용 조회 결과 (QuestionRepository.ExportRow와 같은 순서로 병합할 수 있도록 질문 id 순으로 정렬한다.)
+	interface ExportRow {
+		Integer getId();
+		Integer getQuestionId();
+		String getContent();
+		String getAuthor();
+		LocalDateTime getCreateDate();
+		LocalDateTime getModifyDate();
+		int getVoteCount();
+	}
+	
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = QuestionRepository.EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("select a.id as id, a.question.id as questionId, a.content as content, u.username as author, "
+			+ "a.createDate as createDate, a.modifyDate as modifyDate, a.voteCount as voteCount "
+			+ "from Answer a "
+			+ "left outer join a.author u "
+			+ "order by a.question.id, a.id")
+	Stream<ExportRow> streamExportRows();
+	
+	// 검색 색인을 만들 때 사용하는 조회 결과 (엔티티 대신 필요한 컬럼만 조회한다. id 순서로 afterId 다음부터)
+	interface SearchSource {
+		Integer getId();
+		Integer getQuestionId();
+		String getContent();
+		String getAuthor();
+	}
+	
+	@Query("select a.id as id, a.question.id as questionId, a.content as content, u.username as author "
+			+ "from Answer a "
+			+ "join a.question q "
+			+ "left outer join a.author u "
+			+ "where a.id > :afterId and q.deleteDate is null "
+			+ "order by a.id")
+	List<SearchSource> findSearchSources(@Param("afterId") Integer afterId, Pageable pageable);
+	
+	// 추천 수 증감 (QuestionRepository.updateVoteCount와 같은 방식)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTER_SPACE))
+	@Query(value = "update answer set vote_count = vote_count + :delta where id = :id", nativeQuery = true)
+	int updateVoteCount(@Param("id") Integer id, @Param("delta") int delta);
+	
+	// 추천: voter 컬렉션을 로딩하지 않고 (답변, 사용자) 행을 조건부 INSERT 한다. 이미 추천한 경우 0을 반환한다.
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "answer_voter"))
+	@Query(value = "insert into answer_voter (answer_id, voter_id) "
+			+ "select cast(:answerId as integer), cast(:voterId as bigint) "
+			+ "where not exists (select 1 from answer_voter where answer_id = :answerId and voter_id = :voterId)", nativeQuery = true)
+	int insertVoter(@Param("answerId") Integer answerId, @Param("voterId") Long voterId);
+	
+	// 렌더링 HTML 갱신 (QuestionRepository.findRenderSources, updateContentHtml과 같은 방식)
+	interface RenderSource {
+		Integer getId();
+		String getContent();
+	}
+	
+	@Query("select a.id as id, a.content as content from Answer a "
+			+ "where a.id > :afterId and a.renderVersion <> :version "
+			+ "order by a.id")
+	List<RenderSource> findRenderSources(@Param("afterId") Integer afterId, @Param("version") int version, Pageable pageable);
+	
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = RENDER_SPACE))
+	@Query(value = "update answer set content_html = :html, render_version = :version "
+			+ "where id = :id and render_version <> :version", nativeQuery = true)
+	int updateContentHtml(@Param("id") Integer id, @Param("html") String html, @Param("version") int version);
+	
+	// 삭제된 질문의 답변을 배치 단위로 지운다. (QuestionPurger, 추천 행을 먼저 지운다.)
+	@Query(value = "select id from answer where question_id = :questionId order by id limit :limit", nativeQuery = true)
+	List<Integer> findIdsByQuestionId(@Param("questionId") Integer questionId, @Param("limit") int limit);
+	
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PURGE_SPACE))
+	@Query(value = "delete from answer_voter where answer_id in (:ids)", nativeQuery = true)
+	int deleteVoters(@Param("ids") List<Integer> ids);
+	
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PURGE_SPACE))
+	@Query(value = "delete from answer where id in (:ids)", nativeQuery = true)
+	int purgeAll(@Param("ids") List<Integer> ids);
+	
+	// 실제 추천 행 수와 다른 카운터를 바로잡는다. (id 범위 (afterId, toId]씩 나누어 실행한다.)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "answer"))
+	@Query(value = "update answer a set vote_count = (select count(*) from answer_voter v where v.answer_id = a.id) "
+			+ "where a.id > :afterId and a.id <= :toId "
+			+ "and vote_count <> (select count(*) from answer_voter v where v.answer_id = a.id)", nativeQuery = true)
+	int reconcileVoteCount(@Param("afterId") int afterId, @Param("toId") int toId);
+	
+	@Query(value = "select coalesce(max(id), 0) from answer", nativeQuery = true)
+	int findMaxId();
 }
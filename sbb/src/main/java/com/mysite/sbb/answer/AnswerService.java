@@ -3,10 +3,22 @@ package com.mysite.sbb.answer;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.mysite.sbb.CommonUtil;
 import com.mysite.sbb.DataNotFoundException;
+import com.mysite.sbb.EntityCacheEvictor;
 import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionHotRanking;
+import com.mysite.sbb.question.QuestionListVersion;
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.question.QuestionSearchIndex;
+import com.mysite.sbb.question.QuestionSuggestIndex;
 import com.mysite.sbb.user.SiteUser;
 
 import lombok.RequiredArgsConstructor;
@@ -14,22 +26,44 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Service
 public class AnswerService {
+	public static final int PAGE_SIZE = 20;
+	// 답변 정렬: 최신순(기본), 추천순
+	public static final String SORT_LATEST = "latest";
+	public static final String SORT_VOTE = "vote";
+	
 	private final AnswerRepository answerRepository;
+	private final QuestionRepository questionRepository;
+	private final QuestionSearchIndex questionSearchIndex;
+	private final QuestionSuggestIndex questionSuggestIndex;
+	private final QuestionHotRanking questionHotRanking;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final QuestionListVersion questionListVersion;
+	private final CommonUtil commonUtil;
 	
+	@Transactional
 	public Answer create(Question question, String content, SiteUser author) {
 		Answer answer = new Answer();
 		answer.setContent(content);
+		answer.setContentHtml(this.commonUtil.render(content));
+		answer.setRenderVersion(CommonUtil.RENDERER_VERSION);
 		answer.setCreateDate(LocalDateTime.now());
 		answer.setQuestion(question);
 		answer.setAuthor(author);
 		this.answerRepository.save(answer);
+		this.questionRepository.updateAnswerCount(question.getId(), 1);
+		this.entityCacheEvictor.evict(Question.class, question.getId());
+		this.questionSearchIndex.indexAnswer(answer);
+		this.questionSuggestIndex.addAnswers(question.getId(), 1);
+		this.questionHotRanking.addAnswers(question, 1);
+		this.questionListVersion.increment();
 		// 답변 컨트롤러에서 답변이 등록된 위치로 이동하려면 답변 객체(Answer)이 필요하다.
 		return answer;
 	}
 	
-	// 답변 조회
+	// 답변 조회 (삭제 표시된 질문의 답변은 없는 답변으로 처리한다.)
+	@Transactional(readOnly = true)
 	public Answer getAnswer(Integer id) {
-		Optional<Answer> answer = this.answerRepository.findById(id);
+		Optional<Answer> answer = this.answerRepository.findActiveById(id);
 		if (answer.isPresent()) {
 			return answer.get();
 		} else {
@@ -37,22 +71,60 @@ public class AnswerService {
 		}
 	}
 	
+	// 질문의 답변 목록 (페이징)
+	// Slice를 사용해 COUNT 쿼리 없이 다음 페이지 존재 여부만 확인한다.
+	@Transactional(readOnly = true)
+	public Slice<Answer> getList(Integer questionId, int page, String sort) {
+		Sort order = SORT_VOTE.equals(sort)
+				? Sort.by(Sort.Order.desc("voteCount"), Sort.Order.desc("createDate"), Sort.Order.desc("id"))
+				: Sort.by(Sort.Order.desc("createDate"), Sort.Order.desc("id"));
+		return this.answerRepository.findByQuestionId(questionId, PageRequest.of(page, PAGE_SIZE, order));
+	}
+	
+	// 최신순 답변 목록에서 해당 답변이 있는 페이지 번호
+	@Transactional(readOnly = true)
+	public int getPageNumber(Answer answer) {
+		long newer = this.answerRepository.countNewer(answer.getQuestion().getId(), answer.getCreateDate(), answer.getId());
+		return (int) (newer / PAGE_SIZE);
+	}
+	
 	// 답변 수정
+	@Transactional
 	public void modify(Answer answer, String content) {
 		answer.setContent(content);
+		answer.setContentHtml(this.commonUtil.render(content));
+		answer.setRenderVersion(CommonUtil.RENDERER_VERSION);
 		answer.setModifyDate(LocalDateTime.now());
 		this.answerRepository.save(answer);
+		this.questionSearchIndex.indexAnswer(answer);
+		this.questionListVersion.increment();
 	}
 	
 	// 삭제
+	@Transactional
     public void delete(Answer answer) {
         this.answerRepository.delete(answer);
+        this.questionRepository.updateAnswerCount(answer.getQuestion().getId(), -1);
+        this.entityCacheEvictor.evict(Question.class, answer.getQuestion().getId());
+        this.questionSearchIndex.removeAnswer(answer.getId());
+        this.questionSuggestIndex.addAnswers(answer.getQuestion().getId(), -1);
+        this.questionHotRanking.addAnswers(answer.getQuestion(), -1);
+        this.questionListVersion.increment();
     }
     
-    // 추천
+    // 추천 (QuestionService.vote와 같은 방식)
     public void vote(Answer answer, SiteUser siteUser) {
-        answer.getVoter().add(siteUser);
-        this.answerRepository.save(answer);
+        int inserted;
+        try {
+            inserted = this.answerRepository.insertVoter(answer.getId(), siteUser.getId());
+        } catch (DataIntegrityViolationException e) {
+            return;
+        }
+        if (inserted > 0) {
+            this.answerRepository.updateVoteCount(answer.getId(), 1);
+            this.entityCacheEvictor.evict(Answer.class, answer.getId());
+            // 답변 추천 수는 목록 화면에 나오지 않으므로 목록 버전은 올리지 않는다. (상세 화면 ETag에는 반영된다.)
+        }
     }
 
 }
@@ -4,34 +4,62 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+
+import com.mysite.sbb.IdSequenceAligner;
 import com.mysite.sbb.answer.Answer;
 import com.mysite.sbb.user.SiteUser;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter // 데이터를 변경할 때 Setter 메서드 말고 새로운 변경 메서드를 추가로 작성해서 사용
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "question") // 2차 캐시
+@DynamicUpdate // 변경된 컬럼만 UPDATE 한다. (답변/추천 수 컬럼을 덮어쓰지 않도록)
+@SQLRestriction("delete_date is null") // 삭제 표시된 질문은 조회(JPQL, findById 등)에서 제외한다. 네이티브 쿼리에는 적용되지 않는다.
 public class Question {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY) // Increasement
+	// 시퀀스에서 id를 50개씩 미리 받아 사용한다. (IDENTITY는 INSERT 배치를 사용할 수 없다.)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
+	@SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = IdSequenceAligner.ALLOCATION_SIZE)
 	private Integer id; // 기본키
 	
 	@Column(length = 200)
 	private String subject;
 	
+	@Lob // TEXT(CLOB) 컬럼이므로 스키마 검증 시 CLOB 타입으로 비교되도록 한다.
 	@Column(columnDefinition = "TEXT")
 	private String content;
+
+	// 내용을 렌더링한 HTML (등록/수정 시 저장, CommonUtil.markdown 참고)
+	@Lob
+	@Column(columnDefinition = "TEXT")
+	private String contentHtml;
+
+	// contentHtml을 만든 렌더러 버전 (CommonUtil.RENDERER_VERSION)
+	@ColumnDefault("0")
+	private int renderVersion;
 	
 	private LocalDateTime createDate; // 데이터베이스의 테이블에서는 create_date로 설정됨
 	
@@ -39,6 +67,7 @@ public class Question {
 	// mappedBy : 참조 엔티티의 속성명 정의
 	// 질문 -> 답변 참조 기능
 	@OneToMany(mappedBy = "question", cascade = CascadeType.REMOVE) // -> 질문을 삭제할 경우 답변도 함께 삭제 cascade
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "questionAnswerList")
 	private List<Answer> answerList;
 	
 	// 글쓴이
@@ -48,8 +77,24 @@ public class Question {
 	// 수정 일시
 	private LocalDateTime modifyDate;
 	
+	// 삭제 일시 (삭제 표시, 답변과 추천은 QuestionPurger가 나중에 지운다.)
+	private LocalDateTime deleteDate;
+	
 	// 추천
 	@ManyToMany
+	@JoinTable(name = "question_voter",
+			joinColumns = @JoinColumn(name = "question_id"),
+			inverseJoinColumns = @JoinColumn(name = "voter_id"))
     Set<SiteUser> voter;
 	
+	// 답변 수, 추천 수 (목록/상세 화면에서 컬렉션을 로딩하지 않고 읽기 위해 별도 컬럼으로 관리한다.)
+	@ColumnDefault("0")
+	private int answerCount;
+	
+	@ColumnDefault("0")
+	private int voteCount;
+	
+	// 조회수(view_count 컬럼)는 매핑하지 않는다. QuestionViewCounter가 모아서 주기적으로 더하고, 화면에는 QuestionViewCounter.count로 보여준다.
+	// (매핑하면 저장할 때마다 2차 캐시의 질문을 비워야 한다.)
+	
 }
@@ -1,25 +1,39 @@
 package com.mysite.sbb.question;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import com.mysite.sbb.answer.AnswerForm;
+import com.mysite.sbb.answer.AnswerService;
 import com.mysite.sbb.user.SiteUser;
 import com.mysite.sbb.user.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -31,23 +45,97 @@ public class QuestionController {
 	// @RequiredArgsConstructor : Lombok이 제공하는 애너테이션
 	// final이 붙은 속성을 포함하는 생성자를 자동으로 만들어준다.
 	private final QuestionService questionService; 
+	private final AnswerService answerService;
 	private final UserService userService;
+	private final QuestionExporter questionExporter;
+	private final QuestionListVersion questionListVersion;
+	private final QuestionListCache questionListCache;
+	private final QuestionSuggestIndex questionSuggestIndex;
+	private final QuestionViewCounter questionViewCounter;
+	// 재시작(배포) 후에는 템플릿이 바뀌었을 수 있으므로 ETag가 달라지도록 한다.
+	private final long startedAt = System.currentTimeMillis();
 	
 	@GetMapping("/list")
 	public String list(Model model, @RequestParam(value="page", defaultValue="0") int page // Model 객체는 자바 클래스와 템플릿 간의 연결 고리 역할을 한다.
-			, @RequestParam(value = "kw", defaultValue = "") String kw) { 
+			, @RequestParam(value = "kw", defaultValue = "") String kw
+			, @RequestParam(value = "cursor", defaultValue = "") String cursor
+			, @RequestParam(value = "sort", defaultValue = QuestionService.SORT_LATEST) String sort
+			, WebRequest webRequest, HttpServletRequest request, HttpServletResponse response
+			, Principal principal, Locale locale) throws Exception { 
+		// 목록이 바뀌지 않았으면 조회와 렌더링 없이 304로 응답한다.
+		// 버전은 쓰기 트랜잭션의 커밋 후에 올라가므로 새 ETag와 함께 커밋 전 내용을 보내는 일은 없다. (QuestionListVersion)
+		setCacheControl(response, principal);
+		if (webRequest.checkNotModified(etag("list:" + this.questionListVersion.get(), webRequest, principal))) {
+			return null;
+		}
 		// Model 객체에 값을 담아 두면 템플릿에서 그 값을 사용할 수 있다.
 		// 컨트롤러의 메서드에 매개변수로 지정하기만 하면 스프링 부트가 자동으로 Model 객체를 생성한다.
-		Page<Question> paging = this.questionService.getList(page, kw);
-		model.addAttribute("paging", paging);
 		model.addAttribute("kw",kw);
+		// 인기순(hot)은 검색어가 없을 때만 적용된다. (검색 결과는 최신순)
+		String listSort = QuestionService.SORT_HOT.equals(sort) && kw.isBlank() ? QuestionService.SORT_HOT : QuestionService.SORT_LATEST;
+		model.addAttribute("sort", listSort);
+		if (!cursor.isEmpty() && QuestionService.SORT_LATEST.equals(listSort)) {
+			// 커서 방식: (작성일시, id) 기준으로 다음/이전 페이지를 조회한다.
+			QuestionCursor questionCursor;
+			try {
+				questionCursor = QuestionCursor.decode(cursor);
+			} catch (IllegalArgumentException e) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 cursor 입니다.");
+			}
+			model.addAttribute("cursorPage", this.questionService.getList(kw, questionCursor));
+			return "question_list";
+		}
+		if (page < 0 || page >= QuestionService.MAX_PAGE) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "페이지 번호는 " + QuestionService.MAX_PAGE + " 미만이어야 합니다. cursor를 사용하세요.");
+		}
+		if (principal == null) {
+			// 로그인하지 않은 사용자의 화면은 모두 같으므로 렌더링된 HTML을 캐시해서 사용한다. (조회, COUNT, 템플릿 렌더링 생략)
+			String html = this.questionListCache.get(page, kw, listSort, locale,
+					() -> this.questionListCache.render("question_list", listAttributes(page, kw, listSort), locale, request, response));
+			response.setContentType("text/html;charset=UTF-8");
+			response.getWriter().write(html);
+			return null;
+		}
+		model.addAllAttributes(listAttributes(page, kw, listSort));
 		return "question_list";
 	}
 	
+	// 페이지 번호 방식 목록 화면의 모델
+	private Map<String, Object> listAttributes(int page, String kw, String sort) {
+		Map<String, Object> attributes = new HashMap<>();
+		boolean hot = QuestionService.SORT_HOT.equals(sort);
+		Page<Question> paging = hot ? this.questionService.getHotList(page) : this.questionService.getList(page, kw);
+		attributes.put("kw", kw);
+		attributes.put("sort", sort);
+		attributes.put("paging", paging);
+		attributes.put("maxPage", QuestionService.MAX_PAGE);
+		if (!hot && !paging.isEmpty()) {
+			// 페이지 번호 방식의 마지막 페이지에서는 커서 방식으로 이어서 조회한다.
+			List<Question> content = paging.getContent();
+			attributes.put("nextCursor", QuestionCursor.next(content.get(content.size() - 1)).encode());
+		}
+		return attributes;
+	}
+	
 	@GetMapping(value = "/detail/{id}")
-	public String detail(Model model, @PathVariable("id") Integer id, AnswerForm answerForm) {
+	public String detail(Model model, @PathVariable("id") Integer id, AnswerForm answerForm
+			, @RequestParam(value = "answerPage", defaultValue = "0") int answerPage
+			, @RequestParam(value = "answerSort", defaultValue = AnswerService.SORT_LATEST) String answerSort
+			, WebRequest webRequest, HttpServletResponse response, Principal principal) {
+		// 질문/답변이 바뀌지 않았으면 엔티티 조회, 마크다운/템플릿 렌더링 없이 304로 응답한다.
+		setCacheControl(response, principal);
+		String version = this.questionService.getDetailVersion(id); // 없는 질문이면 404
+		this.questionViewCounter.increment(id); // 304 응답도 조회로 센다.
+		if (webRequest.checkNotModified(etag("detail:" + version, webRequest, principal))) {
+			return null;
+		}
 		Question question = this.questionService.getQuestion(id);
 		model.addAttribute("question", question);
+		// 답변은 전체를 렌더링하지 않고 한 페이지씩 보여준다.
+		String sort = AnswerService.SORT_VOTE.equals(answerSort) ? AnswerService.SORT_VOTE : AnswerService.SORT_LATEST;
+		model.addAttribute("answerPaging", this.answerService.getList(id, Math.max(answerPage, 0), sort));
+		model.addAttribute("answerSort", sort);
+		model.addAttribute("questionId", id);
 		return "question_detail";
 	}
 	
@@ -68,7 +156,7 @@ public class QuestionController {
 		if (bindingResult.hasErrors()) {
 			return "question_form";
 		}
-		SiteUser siteUser = this.userService.getUser(principal.getName());
+		SiteUser siteUser = this.userService.getUser(principal);
 		this.questionService.create(questionForm.getSubject(), questionForm.getContent(), siteUser);
 		return "redirect:/question/list"; // 질문 저장 후 질문 목록으로 이동
 	}
@@ -118,8 +206,47 @@ public class QuestionController {
     @GetMapping("/vote/{id}")
     public String questionVote(Principal principal, @PathVariable("id") Integer id) {
         Question question = this.questionService.getQuestion(id);
-        SiteUser siteUser = this.userService.getUser(principal.getName());
+        SiteUser siteUser = this.userService.getUser(principal);
         this.questionService.vote(question, siteUser);
         return String.format("redirect:/question/detail/%s", id);
     }
+    
+    // 검색어 자동완성: 입력 중인 검색어로 시작하는 질문 제목 (DB를 조회하지 않는다.)
+    @GetMapping("/suggest")
+    @ResponseBody
+    public List<QuestionSuggestIndex.Suggestion> suggest(@RequestParam(value = "q", defaultValue = "") String q) {
+    	return this.questionSuggestIndex.suggest(q, QuestionSuggestIndex.MAX_SUGGESTIONS);
+    }
+    
+    // 질문/답변 내보내기 (관리자)
+    // 응답 스트림에 바로 쓰므로 행 수와 관계없이 메모리 사용량이 일정하다.
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void export(HttpServletResponse response
+    		, @RequestParam(value = "format", defaultValue = QuestionExporter.NDJSON) String format
+    		, @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) throws IOException {
+    	if (!QuestionExporter.NDJSON.equals(format) && !QuestionExporter.CSV.equals(format)) {
+    		throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format은 ndjson 또는 csv 입니다.");
+    	}
+    	String filename = "questions-" + LocalDate.now() + "." + format + (gzip ? ".gz" : "");
+    	response.setContentType(gzip ? "application/gzip"
+    			: QuestionExporter.CSV.equals(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+    	response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+    	this.questionExporter.export(response.getOutputStream(), format, gzip);
+    }
+    
+    // 화면은 로그인 여부와 사용자(수정/삭제 버튼)에 따라 달라지므로 사용자별로 ETag를 만든다.
+    // 로그인 사용자는 세션마다 CSRF 토큰이 다르므로 세션 id도 포함한다. (다른 세션에서 캐시된 폼을 재사용하지 않도록)
+    private String etag(String version, WebRequest webRequest, Principal principal) {
+    	String user = principal != null ? principal.getName() + ":" + webRequest.getSessionId() : "anonymous";
+    	return "W/\"" + DigestUtils.md5DigestAsHex((this.startedAt + ":" + version + ":" + user).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+    
+    // 로그인하지 않은 사용자의 화면은 공유 캐시(프록시)에 저장할 수 있고, 로그인 사용자의 화면은 브라우저에만 저장한다.
+    // 둘 다 no-cache로 매번 ETag로 확인한 뒤 사용한다.
+    private static void setCacheControl(HttpServletResponse response, Principal principal) {
+    	CacheControl cacheControl = principal != null ? CacheControl.noCache().cachePrivate() : CacheControl.noCache().cachePublic();
+    	response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+    	response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+    }
 }
@@ -0,0 +1,52 @@
+package com.mysite.sbb.question;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 커서(keyset) 페이징의 기준 위치
+// OFFSET 대신 마지막으로 본 질문의 (작성일시, id) 다음부터 조회한다.
+// 클라이언트에는 내용을 알 수 없는 문자열(opaque token)로 전달한다.
+@Getter
+@RequiredArgsConstructor
+public class QuestionCursor {
+	// 목록 정렬 순서: 작성일시 역순, 같으면 id 역순
+	static final Comparator<QuestionCursor> ORDER = Comparator
+			.comparing(QuestionCursor::getCreateDate, Comparator.reverseOrder())
+			.thenComparing(QuestionCursor::getId, Comparator.reverseOrder());
+
+	private final boolean previous; // true: 이전(더 최신) 페이지, false: 다음(더 오래된) 페이지
+	private final LocalDateTime createDate;
+	private final Integer id;
+
+	public static QuestionCursor next(Question question) {
+		return new QuestionCursor(false, question.getCreateDate(), question.getId());
+	}
+
+	public static QuestionCursor previous(Question question) {
+		return new QuestionCursor(true, question.getCreateDate(), question.getId());
+	}
+
+	public String encode() {
+		String value = (this.previous ? "p" : "n") + "," + this.createDate + "," + this.id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// 잘못된 토큰이면 IllegalArgumentException 발생
+	public static QuestionCursor decode(String token) {
+		try {
+			String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = value.split(",");
+			if (parts.length != 3 || !(parts[0].equals("p") || parts[0].equals("n"))) {
+				throw new IllegalArgumentException("invalid cursor");
+			}
+			return new QuestionCursor(parts[0].equals("p"), LocalDateTime.parse(parts[1]), Integer.valueOf(parts[2]));
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("invalid cursor", e);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package com.mysite.sbb.question;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 커서 페이징 결과 (전체 건수를 세는 COUNT 쿼리를 실행하지 않는다.)
+@Getter
+@RequiredArgsConstructor
+public class QuestionCursorPage {
+	private final List<Question> content;
+	private final String previousCursor; // 없으면 null
+	private final String nextCursor; // 없으면 null
+
+	public boolean hasPrevious() {
+		return this.previousCursor != null;
+	}
+
+	public boolean hasNext() {
+		return this.nextCursor != null;
+	}
+}
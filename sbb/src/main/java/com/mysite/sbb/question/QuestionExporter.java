@@ -0,0 +1,191 @@
+package com.mysite.sbb.question;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mysite.sbb.answer.AnswerRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/* 질문/답변 내보내기 (분석용)
+ * - findAll()처럼 전체를 List로 읽지 않고, 질문과 답변을 id 순서의 스트림(projection)으로 한 행씩 읽어 바로 출력한다.
+ * 	질문 스트림과 답변 스트림(질문 id 순)을 병합하므로 메모리에는 질문 하나와 그 답변만 올라간다.
+ * - NDJSON: 한 줄에 질문 하나 (answers 배열에 답변 포함)
+ *   CSV: 한 줄에 질문 또는 답변 하나 (type 컬럼으로 구분, 답변은 question_id로 질문과 연결)
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class QuestionExporter {
+	public static final String NDJSON = "ndjson";
+	public static final String CSV = "csv";
+	private static final String CSV_HEADER = "type,id,question_id,subject,content,author,create_date,modify_date,answer_count,vote_count";
+
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+	private final JsonFactory jsonFactory = new JsonFactory();
+
+	@Value("${sbb.export.dir:export}")
+	private String exportDir;
+
+	// 스트림은 트랜잭션 안에서만 읽을 수 있다. 출력 스트림은 닫지 않는다. (gzip이면 압축만 마친다.)
+	@Transactional(readOnly = true)
+	public void export(OutputStream out, String format, boolean gzip) throws IOException {
+		GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+		OutputStream target = gzipOut != null ? gzipOut : out;
+		try (Stream<QuestionRepository.ExportRow> questions = this.questionRepository.streamExportRows();
+				Stream<AnswerRepository.ExportRow> answers = this.answerRepository.streamExportRows()) {
+			if (CSV.equals(format)) {
+				writeCsv(target, questions.iterator(), answers.iterator());
+			} else {
+				writeNdjson(target, questions.iterator(), answers.iterator());
+			}
+		}
+		if (gzipOut != null) {
+			gzipOut.finish();
+		}
+		out.flush();
+	}
+
+	// 매일 밤 파일로 내보낸다. (sbb.export.cron이 "-"이면 실행하지 않는다.)
+	@Scheduled(cron = "${sbb.export.cron:-}")
+	@Transactional(readOnly = true)
+	public void exportNightly() throws IOException {
+		Path dir = Path.of(this.exportDir);
+		Files.createDirectories(dir);
+		Path file = dir.resolve("questions-" + LocalDate.now() + ".ndjson.gz");
+		long start = System.currentTimeMillis();
+		try (OutputStream out = Files.newOutputStream(file)) {
+			export(out, NDJSON, true);
+		}
+		log.info("exported questions to {} in {} ms", file, System.currentTimeMillis() - start);
+	}
+
+	private void writeNdjson(OutputStream out, Iterator<QuestionRepository.ExportRow> questions,
+			Iterator<AnswerRepository.ExportRow> answers) throws IOException {
+		JsonGenerator json = this.jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+		json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+		AnswerMerger merger = new AnswerMerger(answers);
+		while (questions.hasNext()) {
+			QuestionRepository.ExportRow q = questions.next();
+			json.writeStartObject();
+			json.writeNumberField("id", q.getId());
+			json.writeStringField("subject", q.getSubject());
+			json.writeStringField("content", q.getContent());
+			json.writeStringField("author", q.getAuthor());
+			json.writeStringField("createDate", text(q.getCreateDate()));
+			json.writeStringField("modifyDate", text(q.getModifyDate()));
+			json.writeNumberField("answerCount", q.getAnswerCount());
+			json.writeNumberField("voteCount", q.getVoteCount());
+			json.writeArrayFieldStart("answers");
+			for (AnswerRepository.ExportRow a : merger.answersOf(q.getId())) {
+				json.writeStartObject();
+				json.writeNumberField("id", a.getId());
+				json.writeStringField("content", a.getContent());
+				json.writeStringField("author", a.getAuthor());
+				json.writeStringField("createDate", text(a.getCreateDate()));
+				json.writeStringField("modifyDate", text(a.getModifyDate()));
+				json.writeNumberField("voteCount", a.getVoteCount());
+				json.writeEndObject();
+			}
+			json.writeEndArray();
+			json.writeEndObject();
+			json.writeRaw('\n');
+		}
+		json.close();
+	}
+
+	private void writeCsv(OutputStream out, Iterator<QuestionRepository.ExportRow> questions,
+			Iterator<AnswerRepository.ExportRow> answers) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+		writer.write(CSV_HEADER);
+		writer.write("\r\n");
+		AnswerMerger merger = new AnswerMerger(answers);
+		while (questions.hasNext()) {
+			QuestionRepository.ExportRow q = questions.next();
+			writeCsvRow(writer, "question", q.getId(), null, q.getSubject(), q.getContent(), q.getAuthor(),
+					q.getCreateDate(), q.getModifyDate(), q.getAnswerCount(), q.getVoteCount());
+			for (AnswerRepository.ExportRow a : merger.answersOf(q.getId())) {
+				writeCsvRow(writer, "answer", a.getId(), q.getId(), null, a.getContent(), a.getAuthor(),
+						a.getCreateDate(), a.getModifyDate(), null, a.getVoteCount());
+			}
+		}
+		writer.flush();
+	}
+
+	private static void writeCsvRow(Writer writer, String type, Integer id, Integer questionId, String subject, String content,
+			String author, LocalDateTime createDate, LocalDateTime modifyDate, Integer answerCount, int voteCount) throws IOException {
+		writer.write(type);
+		for (Object value : new Object[] { id, questionId, subject, content, author, text(createDate), text(modifyDate), answerCount, voteCount }) {
+			writer.write(',');
+			writer.write(csv(value));
+		}
+		writer.write("\r\n");
+	}
+
+	// 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싼다. (RFC 4180)
+	private static String csv(Object value) {
+		if (value == null) {
+			return "";
+		}
+		String s = value.toString();
+		if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+			return s;
+		}
+		return "\"" + s.replace("\"", "\"\"") + "\"";
+	}
+
+	private static String text(LocalDateTime dateTime) {
+		return dateTime != null ? dateTime.toString() : null;
+	}
+
+	// 질문 id 순으로 정렬된 답변 스트림에서 현재 질문의 답변만 꺼낸다.
+	private static class AnswerMerger {
+		private final Iterator<AnswerRepository.ExportRow> answers;
+		private AnswerRepository.ExportRow pending;
+
+		AnswerMerger(Iterator<AnswerRepository.ExportRow> answers) {
+			this.answers = answers;
+			this.pending = answers.hasNext() ? answers.next() : null;
+		}
+
+		List<AnswerRepository.ExportRow> answersOf(Integer questionId) {
+			List<AnswerRepository.ExportRow> result = new ArrayList<>();
+			// 질문이 없는 답변(앞선 id)은 건너뛴다.
+			while (this.pending != null && this.pending.getQuestionId() < questionId) {
+				next();
+			}
+			while (this.pending != null && this.pending.getQuestionId().equals(questionId)) {
+				result.add(this.pending);
+				next();
+			}
+			return result;
+		}
+
+		private void next() {
+			this.pending = this.answers.hasNext() ? this.answers.next() : null;
+		}
+	}
+}
@@ -0,0 +1,238 @@
+package com.mysite.sbb.question;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/* 인기순(hot) 목록용 상위 K개 순위
+ * - 점수는 가중치(추천 수 * 2 + 답변 수)에 작성 후 경과 시간에 따른 감소(반감기 sbb.hot.half-life)를 곱한 값이다.
+ * 	ln(1 + 가중치) - 경과 시간 / 감소 상수 = ln(1 + 가중치) + 작성 시각 / 감소 상수 - 현재 시각 / 감소 상수 이고,
+ * 	마지막 항은 모든 질문에 같으므로 빼고 저장한다. 시간이 지나도 순서가 바뀌지 않아 주기적으로 다시 계산할 필요가 없다.
+ * - 점수가 높은 CAPACITY개만 정렬된 집합(skip list)에 보관한다. 추천, 답변 등록/삭제 시 서비스에서 해당 질문의 점수만 다시 계산하고,
+ * 	애플리케이션 시작 시와 rebuild-interval마다 질문 테이블의 카운터 컬럼으로 다시 만든다. (추천/답변 테이블은 읽지 않는다.)
+ * 	다시 만들 때는 새 순위를 따로 만든 뒤 교체하므로, 만드는 동안에도 기존 순위로 목록을 보여준다.
+ * - 보관 중이던 질문의 점수가 내려가거나 삭제되면 밖에 있던 질문이 그 자리에 들어와야 하지만 다시 만들 때까지는 알 수 없다.
+ * 	화면에는 앞쪽 절반(VISIBLE)만 보여주어 이 차이가 목록에 드러나지 않게 한다.
+ */
+@Component
+public class QuestionHotRanking {
+	public static final int VISIBLE = QuestionService.MAX_PAGE * QuestionService.PAGE_SIZE;
+	private static final int CAPACITY = VISIBLE * 2;
+	private static final int VOTE_WEIGHT = 2; // 추천 1개는 답변 2개와 같은 가중치
+	private static final int REBUILD_BATCH_SIZE = 1000;
+	private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0); // 점수 계산 기준 시각 (값을 작게 유지)
+
+	// 항목은 바꾸지 않고 새로 만들어 교체한다. (정렬된 집합 안에서 순서가 바뀌지 않도록)
+	private record Entry(int id, LocalDateTime createDate, int voteCount, int answerCount, double score) {
+	}
+
+	private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble(Entry::score).reversed()
+			.thenComparing(Comparator.comparingInt(Entry::id).reversed());
+
+	private final QuestionRepository questionRepository;
+	private final double decaySeconds;
+
+	// 목록에 사용하는 순위 (조회는 잠금 없이 하고, 다시 만들면 새 순위로 교체한다.)
+	private volatile Ranking current = new Ranking();
+	// 다시 만드는 중인 순위 (없으면 null, synchronized 안에서 사용한다.)
+	// 그동안의 갱신은 두 순위에 모두 반영하고, DB에서 읽은 값보다 갱신된 값을 우선한다.
+	private Ranking building;
+	// 다시 만드는 작업이 겹치지 않게 한다. (DB I/O를 하므로 synchronized 대신 사용한다.)
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+
+	public QuestionHotRanking(QuestionRepository questionRepository,
+			@Value("${sbb.hot.half-life:12h}") Duration halfLife) {
+		this.questionRepository = questionRepository;
+		this.decaySeconds = halfLife.toSeconds() / Math.log(2);
+	}
+
+	// 질문 등록 시 호출
+	public void put(Question question) {
+		put(question.getId(), question.getCreateDate(), question.getVoteCount(), question.getAnswerCount());
+	}
+
+	public synchronized void put(Integer id, LocalDateTime createDate, int voteCount, int answerCount) {
+		update(ranking -> ranking.put(id, createDate, voteCount, answerCount));
+	}
+
+	// 질문 삭제 시 호출
+	public synchronized void remove(Integer id) {
+		update(ranking -> ranking.remove(id));
+	}
+
+	// 추천 시 호출 (보관 중이 아니면 질문 엔티티의 카운터로 계산한다.)
+	public synchronized void addVote(Question question) {
+		update(ranking -> {
+			Entry entry = ranking.entries.get(question.getId());
+			if (entry != null) {
+				ranking.put(entry.id(), entry.createDate(), entry.voteCount() + 1, entry.answerCount());
+			} else {
+				ranking.put(question.getId(), question.getCreateDate(), question.getVoteCount() + 1, question.getAnswerCount());
+			}
+		});
+	}
+
+	// 답변 등록(1)/삭제(-1) 시 호출
+	// 보관 중이 아닌 질문은 답변이 늘 때만 넣는다. (점수가 내려가는 질문이 새로 들어올 일은 없고, 삭제 표시된 질문은 넣지 않는다.)
+	public synchronized void addAnswers(Question question, int delta) {
+		update(ranking -> {
+			Entry entry = ranking.entries.get(question.getId());
+			if (entry != null) {
+				ranking.put(entry.id(), entry.createDate(), entry.voteCount(), entry.answerCount() + delta);
+			} else if (delta > 0 && question.getDeleteDate() == null) {
+				ranking.put(question.getId(), question.getCreateDate(), question.getVoteCount(), question.getAnswerCount() + delta);
+			}
+		});
+	}
+
+	// 인기순으로 offset번째부터 최대 limit개의 질문 id
+	public List<Integer> getIds(int offset, int limit) {
+		List<Integer> ids = new ArrayList<>(limit);
+		// 갱신 중인 항목은 이전 값과 새 값이 함께 보일 수 있으므로 id로 중복을 제거한다.
+		Set<Integer> seen = new HashSet<>();
+		int index = 0;
+		for (Entry entry : this.current.ranking) {
+			if (ids.size() >= limit || index >= VISIBLE) {
+				break;
+			}
+			if (seen.add(entry.id()) && index++ >= offset) {
+				ids.add(entry.id());
+			}
+		}
+		return ids;
+	}
+
+	// 목록에 보여줄 수 있는 질문 수
+	public int size() {
+		return Math.min(this.current.entries.size(), VISIBLE);
+	}
+
+	// 애플리케이션 시작 시 요청 처리를 막지 않도록 별도 스레드(applicationTaskExecutor)에서 순위를 만든다.
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		rebuild();
+	}
+
+	// 질문 테이블의 카운터 컬럼으로 새 순위를 만들어 교체한다. (id 순서로 keyset 조회)
+	// 보관 중이던 질문의 점수가 내려가거나 삭제되어 밖으로 밀려났던 질문을 다시 채운다.
+	@Scheduled(initialDelayString = "${sbb.hot.rebuild-interval:1h}", fixedDelayString = "${sbb.hot.rebuild-interval:1h}")
+	public void rebuild() {
+		this.rebuildLock.lock();
+		try {
+			Ranking rebuilt = new Ranking();
+			synchronized (this) {
+				this.building = rebuilt;
+			}
+			try {
+				int afterId = 0;
+				List<QuestionRepository.HotSource> sources;
+				do {
+					sources = this.questionRepository.findHotSources(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+					synchronized (this) {
+						for (QuestionRepository.HotSource source : sources) {
+							// 읽은 뒤에 갱신/삭제된 질문은 건너뛴다.
+							if (!rebuilt.updated.contains(source.getId())) {
+								rebuilt.put(source.getId(), source.getCreateDate(), source.getVoteCount(), source.getAnswerCount());
+							}
+						}
+					}
+					if (!sources.isEmpty()) {
+						afterId = sources.get(sources.size() - 1).getId();
+					}
+				} while (sources.size() == REBUILD_BATCH_SIZE);
+			} catch (RuntimeException e) {
+				// 실패하면 기존 순위를 계속 사용한다.
+				synchronized (this) {
+					this.building = null;
+				}
+				throw e;
+			}
+			synchronized (this) {
+				this.current = rebuilt;
+				this.building = null;
+				rebuilt.updated.clear();
+			}
+		} finally {
+			this.rebuildLock.unlock();
+		}
+	}
+
+	// 현재 순위(다시 만드는 중이면 새 순위에도)에 반영한다. (synchronized 안에서 호출한다.)
+	private void update(Consumer<Ranking> change) {
+		change.accept(this.current);
+		if (this.building != null) {
+			this.building.tracking = true;
+			try {
+				change.accept(this.building);
+			} finally {
+				this.building.tracking = false;
+			}
+		}
+	}
+
+	// 순위 자료구조: 조회는 잠금 없이 하고, 갱신은 synchronized 안에서 두 자료구조를 함께 바꾼다.
+	private class Ranking {
+		private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+		private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(BY_SCORE);
+		// 다시 만드는 중에 서비스에서 갱신/삭제한 질문 id (tracking인 동안 기록한다.)
+		private final Set<Integer> updated = new HashSet<>();
+		private boolean tracking;
+
+		void put(Integer id, LocalDateTime createDate, int voteCount, int answerCount) {
+			if (this.tracking) {
+				this.updated.add(id);
+			}
+			Entry entry = new Entry(id, createDate, voteCount, answerCount, score(createDate, voteCount, answerCount));
+			Entry previous = this.entries.remove(id);
+			if (previous != null) {
+				this.ranking.remove(previous);
+			}
+			// 가득 찼고 마지막 항목보다 낮으면 보관하지 않는다.
+			if (this.ranking.size() >= CAPACITY && BY_SCORE.compare(entry, this.ranking.last()) > 0) {
+				return;
+			}
+			this.entries.put(id, entry);
+			this.ranking.add(entry);
+			while (this.ranking.size() > CAPACITY) {
+				Entry last = this.ranking.pollLast();
+				this.entries.remove(last.id(), last);
+			}
+		}
+
+		void remove(Integer id) {
+			if (this.tracking) {
+				this.updated.add(id);
+			}
+			Entry previous = this.entries.remove(id);
+			if (previous != null) {
+				this.ranking.remove(previous);
+			}
+		}
+	}
+
+	// ln(1 + 가중치) + 작성 시각(초) / 감소 상수
+	double score(LocalDateTime createDate, int voteCount, int answerCount) {
+		int weight = Math.max(voteCount * VOTE_WEIGHT + answerCount, 0);
+		long seconds = createDate != null ? ChronoUnit.SECONDS.between(EPOCH, createDate) : 0;
+		return Math.log1p(weight) + seconds / this.decaySeconds;
+	}
+}
@@ -0,0 +1,171 @@
+package com.mysite.sbb.question;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// 로그인하지 않은 사용자의 질문 목록 화면 HTML 캐시
+// 키에 QuestionListVersion을 포함하므로 질문/답변의 등록, 수정, 삭제와 질문 추천이 있으면 이전 HTML은 더 이상 사용되지 않는다.
+// 같은 키를 동시에 요청하면 한 요청만 조회/렌더링하고 나머지는 그 결과를 기다린다. (single-flight)
+@Component
+public class QuestionListCache {
+	private record Key(long version, int page, String kw, String sort, Locale locale) {
+	}
+
+	// 캐시가 없을 때 HTML을 만드는 작업
+	public interface Renderer {
+		String render() throws Exception;
+	}
+
+	private final ViewResolver viewResolver;
+	private final QuestionListVersion questionListVersion;
+	private final AsyncCache<Key, String> cache;
+
+	public QuestionListCache(@Qualifier("thymeleafViewResolver") ViewResolver viewResolver,
+			QuestionListVersion questionListVersion, MeterRegistry meterRegistry,
+			@Value("${sbb.question-list.cache.max-size:1000}") long maxSize,
+			@Value("${sbb.question-list.cache.ttl:10m}") Duration ttl) {
+		this.viewResolver = viewResolver;
+		this.questionListVersion = questionListVersion;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), "questionList");
+	}
+
+	public String get(int page, String kw, String sort, Locale locale, Renderer renderer) throws Exception {
+		Key key = new Key(this.questionListVersion.get(), page, kw, sort, locale);
+		CompletableFuture<String> created = new CompletableFuture<>();
+		CompletableFuture<String> cached = this.cache.asMap().putIfAbsent(key, created);
+		if (cached != null) {
+			try {
+				return cached.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof Exception cause ? cause : e;
+			}
+		}
+		// 실패한 결과는 캐시에서 자동으로 제거된다.
+		try {
+			String html = renderer.render();
+			created.complete(html);
+			return html;
+		} catch (Exception e) {
+			created.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	// 뷰를 응답 대신 문자열로 렌더링한다.
+	public String render(String viewName, Map<String, ?> model, Locale locale,
+			HttpServletRequest request, HttpServletResponse response) throws Exception {
+		View view = this.viewResolver.resolveViewName(viewName, locale);
+		if (view == null) {
+			throw new IllegalStateException("view not found: " + viewName);
+		}
+		CapturingResponse capturing = new CapturingResponse(response);
+		view.render(model, request, capturing);
+		return capturing.getContent();
+	}
+
+	// 본문을 실제 응답 대신 버퍼에 쓴다. (헤더는 실제 응답에 설정된다.)
+	// getWriter()와 getOutputStream() 모두 같은 바이트 버퍼에 쓰고, 응답의 문자 인코딩으로 문자열을 만든다.
+	private static class CapturingResponse extends HttpServletResponseWrapper {
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private ServletOutputStream outputStream;
+		private PrintWriter writer;
+		private Charset charset;
+
+		CapturingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			if (this.outputStream == null) {
+				this.outputStream = new ServletOutputStream() {
+					@Override
+					public void write(int b) {
+						buffer.write(b);
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) {
+						buffer.write(b, off, len);
+					}
+
+					@Override
+					public boolean isReady() {
+						return true;
+					}
+
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						// 메모리 버퍼는 항상 쓸 수 있으므로(isReady) 바로 알린다.
+						try {
+							writeListener.onWritePossible();
+						} catch (IOException e) {
+							writeListener.onError(e);
+						}
+					}
+				};
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() {
+			if (this.writer == null) {
+				// 뷰가 Content-Type(문자 인코딩)을 설정한 뒤 처음 호출할 때의 인코딩을 사용한다.
+				this.writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset()));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+		}
+
+		String getContent() {
+			flushBuffer();
+			return this.buffer.toString(charset());
+		}
+
+		private Charset charset() {
+			if (this.charset == null) {
+				String encoding = getCharacterEncoding();
+				this.charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+			}
+			return this.charset;
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.mysite.sbb.question;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// 질문 목록(검색 결과 포함)의 변경 버전
+// 질문/답변의 등록, 수정, 삭제와 질문 추천이 있을 때마다 증가한다. 목록 화면의 ETag로 사용하여 변경이 없으면 조회 없이 304로 응답한다.
+// 시작 시각에서 출발하므로 재시작 전의 ETag와 겹치지 않는다. (시작 전에 DataSeeder/BulkImporter로 넣은 데이터도 반영된다.)
+@Component
+public class QuestionListVersion {
+	private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+	public long get() {
+		return this.version.get();
+	}
+
+	// 트랜잭션 안에서 호출되면 커밋 후에 증가한다.
+	// 커밋 전에 올리면 그 사이의 목록 요청이 커밋 전 내용을 새 버전(ETag, QuestionListCache 키)으로 저장한다.
+	public void increment() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					version.incrementAndGet();
+				}
+			});
+		} else {
+			this.version.incrementAndGet();
+		}
+	}
+}
@@ -1,17 +1,35 @@
 package com.mysite.sbb.question;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 // 데이터 저장, 조회, 수정, 삭제를 할 수 있도록 도와주는 인터페이스. 테이블에 접근한다.
 // 이와 같이 데이터를 관리하려면 데이터베이스와 연동하는 JPA Repository가 필요하다.
 public interface QuestionRepository extends JpaRepository<Question, Integer>{ // 기본 값이 Integer이므로 추가로 저장한다.
+	// 카운터 UPDATE 전용 query space (실제 테이블명이 아니므로 2차 캐시 영역을 무효화하지 않는다.)
+	String COUNTER_SPACE = "question_counter";
+	// 렌더링 HTML 갱신(MarkdownBackfill) 전용 query space
+	String RENDER_SPACE = "question_render";
+	// 삭제 표시, 실제 삭제(QuestionPurger) 전용 query space
+	String PURGE_SPACE = "question_purge";
+	// 내보내기 스트림이 DB에서 한 번에 가져오는 행 수
+	String EXPORT_FETCH_SIZE = "500";
+	
 	// 제목이 동일한 건 조회하기
 	Question findBySubject(String subject);
 	// 제목과 내용이 동일한 건 조회하기
@@ -37,4 +55,191 @@ public interface QuestionRepository extends JpaRepository<Question, Integer>{ //
 			+ "	or a.content like %:kw% "
 			+ "	or u2.username like %:kw% ")
 	Page<Question> findAllByKeyword(@Param("kw") String kw, Pageable pageable);
+	
+	// 상세 화면 ETag 계산용 (QuestionService.getDetailVersion)
+	interface DetailVersion {
+		LocalDateTime getModifyDate();
+		int getAnswerCount();
+		int getVoteCount();
+		LocalDateTime getLastAnswerChange();
+		Long getAnswerVotes();
+	}
+	
+	@Query("select q.modifyDate as modifyDate, q.answerCount as answerCount, q.voteCount as voteCount, "
+			+ "max(coalesce(a.modifyDate, a.createDate)) as lastAnswerChange, sum(a.voteCount) as answerVotes "
+			+ "from Question q "
+			+ "left outer join q.answerList a "
+			+ "where q.id = :id "
+			+ "group by q.id, q.modifyDate, q.answerCount, q.voteCount")
+	Optional<DetailVersion> findDetailVersion(@Param("id") Integer id);
+	
+	// 내보내기(QuestionExporter)용 조회 결과
+	// 엔티티가 아닌 projection이므로 영속성 컨텍스트에 쌓이지 않고, 스트림으로 한 행씩 읽는다.
+	interface ExportRow {
+		Integer getId();
+		String getSubject();
+		String getContent();
+		String getAuthor();
+		LocalDateTime getCreateDate();
+		LocalDateTime getModifyDate();
+		int getAnswerCount();
+		int getVoteCount();
+	}
+	
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("select q.id as id, q.subject as subject, q.content as content, u.username as author, "
+			+ "q.createDate as createDate, q.modifyDate as modifyDate, q.answerCount as answerCount, q.voteCount as voteCount "
+			+ "from Question q "
+			+ "left outer join q.author u "
+			+ "order by q.id")
+	Stream<ExportRow> streamExportRows();
+	
+	// 검색 색인을 만들 때 사용하는 조회 결과 (엔티티 대신 필요한 컬럼만 조회한다. id 순서로 afterId 다음부터)
+	interface SearchSource {
+		Integer getId();
+		String getSubject();
+		String getContent();
+		LocalDateTime getCreateDate();
+		String getAuthor();
+	}
+	
+	@Query("select q.id as id, q.subject as subject, q.content as content, q.createDate as createDate, u.username as author "
+			+ "from Question q "
+			+ "left outer join q.author u "
+			+ "where q.id > :afterId "
+			+ "order by q.id")
+	List<SearchSource> findSearchSources(@Param("afterId") Integer afterId, Pageable pageable);
+	
+	// 자동완성 색인(QuestionSuggestIndex)을 만들 때 사용하는 조회 결과 (id 순서로 afterId 다음부터)
+	interface SuggestSource {
+		Integer getId();
+		String getSubject();
+		int getVoteCount();
+		int getAnswerCount();
+	}
+	
+	@Query("select q.id as id, q.subject as subject, q.voteCount as voteCount, q.answerCount as answerCount "
+			+ "from Question q "
+			+ "where q.id > :afterId "
+			+ "order by q.id")
+	List<SuggestSource> findSuggestSources(@Param("afterId") Integer afterId, Pageable pageable);
+	
+	// 인기순 순위(QuestionHotRanking)를 만들 때 사용하는 조회 결과 (id 순서로 afterId 다음부터)
+	interface HotSource {
+		Integer getId();
+		LocalDateTime getCreateDate();
+		int getVoteCount();
+		int getAnswerCount();
+	}
+	
+	@Query("select q.id as id, q.createDate as createDate, q.voteCount as voteCount, q.answerCount as answerCount "
+			+ "from Question q "
+			+ "where q.id > :afterId "
+			+ "order by q.id")
+	List<HotSource> findHotSources(@Param("afterId") Integer afterId, Pageable pageable);
+	
+	// 답변 수, 추천 수를 엔티티를 읽지 않고 한 번의 UPDATE로 증감한다.
+	// 2차 캐시 영역 전체가 무효화되지 않도록 별도 query space를 지정한다. (호출한 쪽에서 EntityCacheEvictor로 해당 질문만 제거)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTER_SPACE))
+	@Query(value = "update question set answer_count = answer_count + :delta where id = :id", nativeQuery = true)
+	int updateAnswerCount(@Param("id") Integer id, @Param("delta") int delta);
+	
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNTER_SPACE))
+	@Query(value = "update question set vote_count = vote_count + :delta where id = :id", nativeQuery = true)
+	int updateVoteCount(@Param("id") Integer id, @Param("delta") int delta);
+	
+	// 추천: voter 컬렉션을 로딩하지 않고 (질문, 사용자) 행을 조건부 INSERT 한다.
+	// 이미 추천한 경우 0을 반환한다. (동시에 같은 추천이 들어오면 기본키 제약조건 위반이 발생한다.)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "question_voter"))
+	@Query(value = "insert into question_voter (question_id, voter_id) "
+			+ "select cast(:questionId as integer), cast(:voterId as bigint) "
+			+ "where not exists (select 1 from question_voter where question_id = :questionId and voter_id = :voterId)", nativeQuery = true)
+	int insertVoter(@Param("questionId") Integer questionId, @Param("voterId") Long voterId);
+	
+	// 실제 답변/추천 행 수와 다른 카운터를 바로잡는다.
+	// 한 번에 전체 테이블을 잠그지 않도록 id 범위 (afterId, toId]씩 나누어 실행한다. (CountReconciler)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "question"))
+	@Query(value = "update question q set answer_count = (select count(*) from answer a where a.question_id = q.id) "
+			+ "where q.id > :afterId and q.id <= :toId "
+			+ "and answer_count <> (select count(*) from answer a where a.question_id = q.id)", nativeQuery = true)
+	int reconcileAnswerCount(@Param("afterId") int afterId, @Param("toId") int toId);
+	
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "question"))
+	@Query(value = "update question q set vote_count = (select count(*) from question_voter v where v.question_id = q.id) "
+			+ "where q.id > :afterId and q.id <= :toId "
+			+ "and vote_count <> (select count(*) from question_voter v where v.question_id = q.id)", nativeQuery = true)
+	int reconcileVoteCount(@Param("afterId") int afterId, @Param("toId") int toId);
+	
+	// 삭제 표시된 질문을 포함한 최대 id (보정 범위의 끝)
+	@Query(value = "select coalesce(max(id), 0) from question", nativeQuery = true)
+	int findMaxId();
+	
+	// 렌더링 HTML이 현재 렌더러 버전이 아닌 질문 (id 순서로 afterId 다음부터)
+	interface RenderSource {
+		Integer getId();
+		String getContent();
+	}
+	
+	@Query("select q.id as id, q.content as content from Question q "
+			+ "where q.id > :afterId and q.renderVersion <> :version "
+			+ "order by q.id")
+	List<RenderSource> findRenderSources(@Param("afterId") Integer afterId, @Param("version") int version, Pageable pageable);
+	
+	// 그 사이 수정되어 이미 현재 버전으로 저장된 행은 덮어쓰지 않는다. (호출한 쪽에서 EntityCacheEvictor로 해당 질문만 제거)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = RENDER_SPACE))
+	@Query(value = "update question set content_html = :html, render_version = :version "
+			+ "where id = :id and render_version <> :version", nativeQuery = true)
+	int updateContentHtml(@Param("id") Integer id, @Param("html") String html, @Param("version") int version);
+	
+	// 삭제 표시: 답변과 추천은 그대로 두고 질문 행 하나만 바꾼다. (호출한 쪽에서 EntityCacheEvictor로 해당 질문만 제거)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PURGE_SPACE))
+	@Query(value = "update question set delete_date = :deleteDate where id = :id and delete_date is null", nativeQuery = true)
+	int softDelete(@Param("id") Integer id, @Param("deleteDate") LocalDateTime deleteDate);
+	
+	// 삭제 표시된 질문 (엔티티 조회에서는 제외되므로 네이티브 쿼리로 조회한다.)
+	@Query(value = "select id from question where delete_date is not null order by id limit :limit", nativeQuery = true)
+	List<Integer> findDeletedIds(@Param("limit") int limit);
+	
+	// 답변을 모두 지운 뒤 추천과 질문을 지운다. (QuestionPurger)
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PURGE_SPACE))
+	@Query(value = "delete from question_voter where question_id = :id", nativeQuery = true)
+	int deleteVoters(@Param("id") Integer id);
+	
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = PURGE_SPACE))
+	@Query(value = "delete from question where id = :id and delete_date is not null", nativeQuery = true)
+	int purge(@Param("id") Integer id);
+	
+	// 커서(keyset) 페이징: (작성일시, id) 기준으로 OFFSET 없이 다음/이전 위치부터 조회한다.
+	@Query("select q from Question q order by q.createDate desc, q.id desc")
+	List<Question> findLatest(Pageable pageable);
+	
+	@Query("select q from Question q "
+			+ "where q.createDate < :createDate or (q.createDate = :createDate and q.id < :id) "
+			+ "order by q.createDate desc, q.id desc")
+	List<Question> findOlderThan(@Param("createDate") LocalDateTime createDate, @Param("id") Integer id, Pageable pageable);
+	
+	@Query("select q from Question q "
+			+ "where q.createDate > :createDate or (q.createDate = :createDate and q.id > :id) "
+			+ "order by q.createDate asc, q.id asc")
+	List<Question> findNewerThan(@Param("createDate") LocalDateTime createDate, @Param("id") Integer id, Pageable pageable);
 }
@@ -0,0 +1,462 @@
+package com.mysite.sbb.question;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.user.SiteUser;
+
+import lombok.RequiredArgsConstructor;
+
+/* 질문 검색용 역색인(Inverted Index)
+ * - LIKE '%kw%' 검색은 인덱스를 사용할 수 없어 전체 테이블을 스캔한다.
+ * - 제목, 내용, 답변 내용, 작성자명의 각 단어를 두 글자 단위(bigram)로 잘라 용어 -> 질문 id 목록(posting)으로 메모리에 저장한다.
+ * 	용어는 두 글자(char)를 int 하나로 만든 값이고, posting은 질문 id 순으로 정렬된 int 배열이다. (객체를 만들지 않는다.)
+ * - 한국어는 띄어쓰기 단위 단어 검색이 잘 맞지 않으므로 n-gram 방식을 사용해 부분 문자열 검색과 비슷한 결과를 얻는다.
+ * - 검색 의미: 검색어의 각 단어(두 글자 이상)의 bigram이 모두 같은 질문(질문 또는 답변)에 있으면 일치한다.
+ * 	단어 순서는 보지 않고, 한 단어의 bigram이 문서의 서로 다른 단어에 나뉘어 있어도 일치한다. (LIKE보다 넓다, 테스트 참고)
+ * 	글자 하나로는 거의 모든 질문이 일치하므로 한 글자 용어는 색인하지 않고, 한 글자 단어가 있는 검색어는 DB에서 검색한다. (canSearch)
+ * - 질문/답변의 등록, 수정, 삭제 시 서비스에서 색인을 갱신하고(트랜잭션 안이면 커밋 후에 반영), 애플리케이션 시작 시 DB에서 다시 만든다.
+ * 	시작 시 만드는 작업은 전체 테이블을 읽으므로 별도 스레드에서 실행하고, 처음 만든 색인으로 교체되기 전까지는 DB에서 검색한다. (canSearch)
+ */
+@RequiredArgsConstructor
+@Component
+public class QuestionSearchIndex {
+	private static final int REBUILD_BATCH_SIZE = 500;
+	private static final int[] NO_IDS = new int[0];
+
+	private final QuestionRepository questionRepository;
+	private final AnswerRepository answerRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	// 검색에 사용하는 색인 (다시 만들 때는 새 색인을 만든 뒤 쓰기 락을 잡고 교체한다.)
+	private Index index = new Index();
+	// 다시 만드는 중인 색인 (없으면 null)
+	// 그동안의 갱신은 두 색인에 모두 반영하고, DB에서 읽은 값보다 갱신된 값을 우선한다.
+	private Index building;
+	// DB에서 만든 색인으로 한 번 이상 교체되었는지 (그 전에는 색인에 시작 전 데이터가 없다.)
+	private volatile boolean ready;
+	// 다시 만드는 작업이 겹치지 않게 한다. (DB I/O를 하므로 synchronized 대신 사용한다.)
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+
+	// 색인 원본(질문 또는 답변): 삭제/수정 시 posting에서 뺄 용어를 정렬된 int 배열로 보관한다.
+	private record Document(int questionId, LocalDateTime createDate, int[] terms) {
+	}
+
+	// 질문 등록/수정 시 호출
+	public void indexQuestion(Question question) {
+		int[] terms = documentTerms(question.getSubject(), question.getContent(), username(question.getAuthor()));
+		Document document = new Document(question.getId(), question.getCreateDate(), terms);
+		afterCommit(() -> update(index -> index.putQuestion(document)));
+	}
+
+	// 답변 등록/수정 시 호출
+	public void indexAnswer(Answer answer) {
+		int[] terms = documentTerms(answer.getContent(), username(answer.getAuthor()));
+		Integer answerId = answer.getId();
+		Document document = new Document(answer.getQuestion().getId(), null, terms);
+		afterCommit(() -> update(index -> index.putAnswer(answerId, document)));
+	}
+
+	// 질문 삭제 시 호출 (답변 색인도 함께 제거된다.)
+	public void removeQuestion(Integer questionId) {
+		afterCommit(() -> update(index -> index.removeQuestion(questionId)));
+	}
+
+	// 답변 삭제 시 호출
+	public void removeAnswer(Integer answerId) {
+		afterCommit(() -> update(index -> index.removeAnswer(answerId)));
+	}
+
+	// 색인으로 검색할 수 있는 검색어인지 (false이면 서비스에서 DB 검색을 사용한다.)
+	// 색인이 아직 만들어지지 않았거나, 한 글자 단어가 있으면 false
+	public boolean canSearch(String kw) {
+		if (!this.ready) {
+			return false;
+		}
+		for (String token : tokenize(kw)) {
+			if (token.length() < 2) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// 검색어의 모든 용어를 포함하는 질문을 목록 정렬 순서((작성일시, id) 역순)의 커서로 반환한다.
+	// 페이지 번호 방식과 커서 방식이 같은 순서를 사용해야 마지막 페이지에서 커서 방식으로 이어갈 때 빠지거나 중복되는 질문이 없다.
+	public List<QuestionCursor> searchLatest(String kw) {
+		int[] queryTerms = queryTerms(kw);
+		lock.readLock().lock();
+		try {
+			int[] ids = this.index.match(queryTerms);
+			List<QuestionCursor> cursors = new ArrayList<>(ids.length);
+			for (int id : ids) {
+				cursors.add(new QuestionCursor(false, this.index.createDateOf(id), id));
+			}
+			cursors.sort(QuestionCursor.ORDER);
+			return cursors;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// 애플리케이션 시작 시 요청 처리를 막지 않도록 별도 스레드(applicationTaskExecutor)에서 색인을 만든다.
+	@Async
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		rebuild();
+	}
+
+	// DB의 질문/답변으로 새 색인을 만들어 교체한다. (id 순서로 keyset 조회)
+	// 만드는 동안에는 기존 색인으로 검색한다. 동시에 여러 번 호출되면 차례로 실행한다.
+	public void rebuild() {
+		this.rebuildLock.lock();
+		try {
+			doRebuild();
+		} finally {
+			this.rebuildLock.unlock();
+		}
+	}
+
+	private void doRebuild() {
+		Index rebuilt = new Index();
+		lock.writeLock().lock();
+		try {
+			this.building = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		try {
+			int afterId = 0;
+			List<QuestionRepository.SearchSource> questions;
+			do {
+				questions = this.questionRepository.findSearchSources(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+				for (QuestionRepository.SearchSource q : questions) {
+					Document document = new Document(q.getId(), q.getCreateDate(),
+							documentTerms(q.getSubject(), q.getContent(), q.getAuthor()));
+					load(() -> {
+						if (!rebuilt.updatedQuestions.contains(q.getId()) && !rebuilt.removedQuestions.contains(q.getId())) {
+							rebuilt.putQuestion(document);
+						}
+					});
+					afterId = q.getId();
+				}
+			} while (questions.size() == REBUILD_BATCH_SIZE);
+			afterId = 0;
+			List<AnswerRepository.SearchSource> answers;
+			do {
+				answers = this.answerRepository.findSearchSources(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+				for (AnswerRepository.SearchSource a : answers) {
+					Document document = new Document(a.getQuestionId(), null, documentTerms(a.getContent(), a.getAuthor()));
+					load(() -> {
+						if (!rebuilt.updatedAnswers.contains(a.getId()) && !rebuilt.removedQuestions.contains(a.getQuestionId())) {
+							rebuilt.putAnswer(a.getId(), document);
+						}
+					});
+					afterId = a.getId();
+				}
+			} while (answers.size() == REBUILD_BATCH_SIZE);
+		} catch (RuntimeException e) {
+			// 실패하면 기존 색인을 계속 사용한다.
+			lock.writeLock().lock();
+			try {
+				this.building = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			this.index = rebuilt;
+			this.building = null;
+			this.ready = true;
+			rebuilt.updatedQuestions.clear();
+			rebuilt.updatedAnswers.clear();
+			rebuilt.removedQuestions.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// DB에서 읽은 원본을 새 색인에 넣는다. (읽은 뒤에 갱신/삭제된 원본은 호출한 쪽에서 건너뛴다.)
+	private void load(Runnable put) {
+		lock.writeLock().lock();
+		try {
+			put.run();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// 현재 색인(다시 만드는 중이면 새 색인에도)에 반영한다.
+	private void update(Consumer<Index> change) {
+		lock.writeLock().lock();
+		try {
+			change.accept(this.index);
+			if (this.building != null) {
+				this.building.tracking = true;
+				try {
+					change.accept(this.building);
+				} finally {
+					this.building.tracking = false;
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// 트랜잭션 안에서 호출되면 커밋 후에 반영한다. (롤백된 변경이 검색되지 않도록)
+	private static void afterCommit(Runnable update) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					update.run();
+				}
+			});
+		} else {
+			update.run();
+		}
+	}
+
+	// 색인 자료구조 (QuestionSearchIndex의 락을 잡은 상태에서 사용한다.)
+	private static class Index {
+		// 용어 -> 질문 id posting
+		private final Map<Integer, Posting> postings = new HashMap<>();
+		// 질문 id -> 질문 원본, 답변 id -> 답변 원본
+		private final Map<Integer, Document> questions = new HashMap<>();
+		private final Map<Integer, Document> answers = new HashMap<>();
+		// 질문 id -> 답변 id 목록 (질문 삭제 시 답변 색인까지 함께 제거)
+		private final Map<Integer, Set<Integer>> answersByQuestion = new HashMap<>();
+		// 다시 만드는 중에 서비스에서 갱신/삭제한 원본 (tracking인 동안 기록한다.)
+		private final Set<Integer> updatedQuestions = new HashSet<>();
+		private final Set<Integer> updatedAnswers = new HashSet<>();
+		private final Set<Integer> removedQuestions = new HashSet<>();
+		private boolean tracking;
+
+		void putQuestion(Document document) {
+			removeDocument(this.questions.put(document.questionId(), document));
+			addDocument(document);
+			if (this.tracking) {
+				this.updatedQuestions.add(document.questionId());
+			}
+		}
+
+		void putAnswer(int answerId, Document document) {
+			removeAnswer(answerId);
+			this.answers.put(answerId, document);
+			this.answersByQuestion.computeIfAbsent(document.questionId(), id -> new HashSet<>()).add(answerId);
+			addDocument(document);
+		}
+
+		void removeQuestion(Integer questionId) {
+			removeDocument(this.questions.remove(questionId));
+			Set<Integer> answerIds = this.answersByQuestion.get(questionId);
+			if (answerIds != null) {
+				for (Integer answerId : new ArrayList<>(answerIds)) {
+					removeAnswer(answerId);
+				}
+			}
+			if (this.tracking) {
+				this.removedQuestions.add(questionId);
+			}
+		}
+
+		void removeAnswer(Integer answerId) {
+			if (this.tracking) {
+				this.updatedAnswers.add(answerId);
+			}
+			Document document = this.answers.remove(answerId);
+			if (document == null) {
+				return;
+			}
+			Set<Integer> answerIds = this.answersByQuestion.get(document.questionId());
+			if (answerIds != null) {
+				answerIds.remove(answerId);
+				if (answerIds.isEmpty()) {
+					this.answersByQuestion.remove(document.questionId());
+				}
+			}
+			removeDocument(document);
+		}
+
+		private void addDocument(Document document) {
+			for (int term : document.terms()) {
+				this.postings.computeIfAbsent(term, t -> new Posting()).add(document.questionId());
+			}
+		}
+
+		private void removeDocument(Document document) {
+			if (document == null) {
+				return;
+			}
+			for (int term : document.terms()) {
+				Posting posting = this.postings.get(term);
+				if (posting != null && posting.remove(document.questionId())) {
+					this.postings.remove(term);
+				}
+			}
+		}
+
+		// 모든 검색 용어를 포함하는 질문 id (가장 짧은 posting부터 교집합을 구한다.)
+		int[] match(int[] queryTerms) {
+			if (queryTerms.length == 0) {
+				return NO_IDS;
+			}
+			List<Posting> lists = new ArrayList<>(queryTerms.length);
+			for (int term : queryTerms) {
+				Posting posting = this.postings.get(term);
+				if (posting == null) {
+					return NO_IDS;
+				}
+				lists.add(posting);
+			}
+			lists.sort(Comparator.comparingInt(posting -> posting.size));
+			Posting first = lists.get(0);
+			int[] ids = new int[first.size];
+			int count = 0;
+			for (int i = 0; i < first.size; i++) {
+				int id = first.ids[i];
+				boolean all = true;
+				for (int j = 1; j < lists.size() && all; j++) {
+					all = lists.get(j).contains(id);
+				}
+				if (all) {
+					ids[count++] = id;
+				}
+			}
+			return Arrays.copyOf(ids, count);
+		}
+
+		LocalDateTime createDateOf(int questionId) {
+			Document document = this.questions.get(questionId);
+			return document != null && document.createDate() != null ? document.createDate() : LocalDateTime.MIN;
+		}
+	}
+
+	// 용어 하나의 posting: 질문 id 오름차순 배열과 id별 원본 수(질문 + 답변 중 이 용어를 가진 수)
+	private static class Posting {
+		private int[] ids = new int[2];
+		private int[] counts = new int[2];
+		private int size;
+
+		void add(int id) {
+			int i = Arrays.binarySearch(this.ids, 0, this.size, id);
+			if (i >= 0) {
+				this.counts[i]++;
+				return;
+			}
+			i = -i - 1;
+			if (this.size == this.ids.length) {
+				this.ids = Arrays.copyOf(this.ids, this.size * 2);
+				this.counts = Arrays.copyOf(this.counts, this.size * 2);
+			}
+			System.arraycopy(this.ids, i, this.ids, i + 1, this.size - i);
+			System.arraycopy(this.counts, i, this.counts, i + 1, this.size - i);
+			this.ids[i] = id;
+			this.counts[i] = 1;
+			this.size++;
+		}
+
+		// 원본 하나만큼 뺀다. 비게 되면 true
+		boolean remove(int id) {
+			int i = Arrays.binarySearch(this.ids, 0, this.size, id);
+			if (i >= 0 && --this.counts[i] == 0) {
+				System.arraycopy(this.ids, i + 1, this.ids, i, this.size - i - 1);
+				System.arraycopy(this.counts, i + 1, this.counts, i, this.size - i - 1);
+				this.size--;
+			}
+			return this.size == 0;
+		}
+
+		boolean contains(int id) {
+			return Arrays.binarySearch(this.ids, 0, this.size, id) >= 0;
+		}
+	}
+
+	private static String username(SiteUser user) {
+		return user != null ? user.getUsername() : null;
+	}
+
+	// 문서 용어: 각 단어의 연속된 두 글자(bigram), 중복 없이 정렬한 배열
+	static int[] documentTerms(String... texts) {
+		int[] terms = new int[16];
+		int count = 0;
+		for (String text : texts) {
+			for (String token : tokenize(text)) {
+				for (int i = 0; i + 1 < token.length(); i++) {
+					if (count == terms.length) {
+						terms = Arrays.copyOf(terms, count * 2);
+					}
+					terms[count++] = bigram(token, i);
+				}
+			}
+		}
+		return distinct(terms, count);
+	}
+
+	// 검색어 용어: 각 단어의 bigram (한 글자 단어는 canSearch에서 걸러진다.)
+	static int[] queryTerms(String kw) {
+		return documentTerms(kw);
+	}
+
+	// 두 글자(char)를 int 하나로 만든다.
+	static int bigram(String token, int i) {
+		return token.charAt(i) << 16 | token.charAt(i + 1);
+	}
+
+	private static int[] distinct(int[] values, int count) {
+		Arrays.sort(values, 0, count);
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			if (size == 0 || values[size - 1] != values[i]) {
+				values[size++] = values[i];
+			}
+		}
+		return Arrays.copyOf(values, size);
+	}
+
+	// 글자/숫자가 아닌 문자를 기준으로 단어를 나누고 소문자로 바꾼다.
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		StringBuilder sb = new StringBuilder();
+		text.toLowerCase(Locale.ROOT).codePoints().forEach(c -> {
+			if (Character.isLetterOrDigit(c)) {
+				sb.appendCodePoint(c);
+			} else if (sb.length() > 0) {
+				tokens.add(sb.toString());
+				sb.setLength(0);
+			}
+		});
+		if (sb.length() > 0) {
+			tokens.add(sb.toString());
+		}
+		return tokens;
+	}
+}
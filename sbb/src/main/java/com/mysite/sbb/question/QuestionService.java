@@ -2,18 +2,28 @@ package com.mysite.sbb.question;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.boot.context.config.ConfigDataLocationNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.mysite.sbb.CommonUtil;
 import com.mysite.sbb.DataNotFoundException;
+import com.mysite.sbb.EntityCacheEvictor;
 import com.mysite.sbb.answer.Answer;
 import com.mysite.sbb.user.SiteUser;
 
@@ -21,6 +31,7 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
@@ -39,12 +50,28 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Service
 public class QuestionService {
+	public static final int PAGE_SIZE = 10;
+	// 페이지 번호 방식은 앞쪽 페이지까지만 허용하고 그 뒤는 커서 방식으로 조회한다. (깊은 OFFSET 스캔 방지)
+	public static final int MAX_PAGE = 50;
+	// 목록 정렬: 최신순, 인기순(QuestionHotRanking)
+	public static final String SORT_LATEST = "latest";
+	public static final String SORT_HOT = "hot";
+	
 	private final QuestionRepository questionRepository;
+	private final QuestionSearchIndex questionSearchIndex;
+	private final QuestionSuggestIndex questionSuggestIndex;
+	private final QuestionHotRanking questionHotRanking;
+	private final EntityCacheEvictor entityCacheEvictor;
+	private final QuestionListVersion questionListVersion;
+	private final CommonUtil commonUtil;
 	
+	@Transactional(readOnly = true)
 	public List<Question> getList() {
 		return this.questionRepository.findAll();
 	}
 	
+	// 상세 화면에서도 사용한다. 질문과 작성자는 2차 캐시에서 가져오므로 캐시 적중 시 쿼리가 실행되지 않는다.
+	@Transactional(readOnly = true)
 	public Question getQuestion(Integer id) {
 		Optional<Question> question = this.questionRepository.findById(id);
 		if (question.isPresent()) {
@@ -54,46 +81,205 @@ public class QuestionService {
 		}
 	}
 	
+	// 상세 화면의 변경 여부 확인용 버전 (ETag)
+	// 질문 수정, 질문 추천, 답변 등록/수정/삭제/추천이 있으면 바뀐다. 질문과 답변 엔티티를 읽지 않고 집계 쿼리 한 번으로 구한다.
+	@Transactional(readOnly = true)
+	public String getDetailVersion(Integer id) {
+		Optional<QuestionRepository.DetailVersion> version = this.questionRepository.findDetailVersion(id);
+		if (version.isEmpty()) {
+			throw new DataNotFoundException("question not found");
+		}
+		QuestionRepository.DetailVersion v = version.get();
+		return v.getModifyDate() + "/" + v.getVoteCount() + "/" + v.getAnswerCount()
+				+ "/" + v.getLastAnswerChange() + "/" + v.getAnswerVotes();
+	}
+	
 	// 제목과 내용을 입력 받아 이를 질문으로 저장하는 메서드
+	@Transactional
 	public void create(String subject, String content, SiteUser user) {
 		Question q = new Question();
 		q.setSubject(subject);
 		q.setContent(content);
+		q.setContentHtml(this.commonUtil.render(content));
+		q.setRenderVersion(CommonUtil.RENDERER_VERSION);
 		q.setCreateDate(LocalDateTime.now());
 		q.setAuthor(user);
 		this.questionRepository.save(q);
+		this.questionSearchIndex.indexQuestion(q);
+		this.questionSuggestIndex.put(q);
+		this.questionHotRanking.put(q);
+		this.questionListVersion.increment();
 	}
 	
 	// 페이징
+	@Transactional(readOnly = true)
 	public Page<Question> getList(int page, String kw) {
 		List<Sort.Order> sorts = new ArrayList<>();
         sorts.add(Sort.Order.desc("createDate"));
-		Pageable pageable = PageRequest.of(page, 10, Sort.by(sorts));
+		sorts.add(Sort.Order.desc("id")); // (작성일시, id) 인덱스 순서와 같게 정렬한다. (V2__list_and_join_indexes.sql)
+		Pageable pageable = PageRequest.of(page, PAGE_SIZE, Sort.by(sorts));
+		if (kw.isBlank()) {
+			return this.questionRepository.findAll(pageable);
+		}
+		if (!this.questionSearchIndex.canSearch(kw)) {
+			// 색인이 아직 만들어지지 않았거나(시작 직후), 색인하지 않는 한 글자 단어가 있으면 DB에서 검색한다.
+			return this.questionRepository.findAll(search(kw), pageable);
+		}
+		// LIKE 검색(findAllByKeyword) 대신 검색 색인에서 질문 id를 구한 뒤 해당 페이지만 조회한다.
+		// 마지막 페이지 이후는 커서 방식(searchByCursor)으로 이어지므로 같은 (작성일시, id) 역순으로 정렬한다.
+		List<QuestionCursor> matches = this.questionSearchIndex.searchLatest(kw);
+		int from = (int) Math.min(pageable.getOffset(), matches.size());
+		int to = Math.min(from + pageable.getPageSize(), matches.size());
+		List<Integer> pageIds = matches.subList(from, to).stream().map(QuestionCursor::getId).toList();
+		List<Question> questions = new ArrayList<>(this.questionRepository.findAllById(pageIds));
+		questions.sort(Comparator.comparingInt(q -> pageIds.indexOf(q.getId())));
+		return new PageImpl<>(questions, pageable, matches.size());
+	}
+	
+	// 인기순 페이징: 메모리의 순위(QuestionHotRanking)에서 해당 페이지의 질문 id를 구한 뒤 질문만 조회한다.
+	@Transactional(readOnly = true)
+	public Page<Question> getHotList(int page) {
+		Pageable pageable = PageRequest.of(page, PAGE_SIZE);
+		List<Integer> pageIds = this.questionHotRanking.getIds((int) pageable.getOffset(), PAGE_SIZE);
+		List<Question> questions = new ArrayList<>(this.questionRepository.findAllById(pageIds));
+		questions.sort(Comparator.comparingInt(q -> pageIds.indexOf(q.getId())));
+		return new PageImpl<>(questions, pageable, this.questionHotRanking.size());
+	}
+	
+	// 커서 페이징 (cursor가 null이면 첫 페이지)
+	// 검색어가 있으면 검색 색인의 결과를, 없으면 (작성일시, id) 인덱스 순서로 조회한다. 두 경우 모두 최신순이다.
+	@Transactional(readOnly = true)
+	public QuestionCursorPage getList(String kw, QuestionCursor cursor) {
+		boolean previous = cursor != null && cursor.isPrevious();
+		List<Question> questions = kw.isBlank() ? findByCursor(cursor) : searchByCursor(kw, cursor);
+		boolean hasMore = questions.size() > PAGE_SIZE;
+		if (hasMore) {
+			questions = questions.subList(0, PAGE_SIZE); // 한 건 더 조회해서 다음 페이지 존재 여부를 판단한다.
+		}
+		if (previous) {
+			questions = new ArrayList<>(questions);
+			Collections.reverse(questions); // 이전 페이지는 오래된 순으로 조회되므로 뒤집는다.
+		}
+		if (questions.isEmpty()) {
+			return new QuestionCursorPage(questions, null, null);
+		}
+		boolean hasPrevious = previous ? hasMore : cursor != null;
+		boolean hasNext = previous || hasMore;
+		return new QuestionCursorPage(questions,
+				hasPrevious ? QuestionCursor.previous(questions.get(0)).encode() : null,
+				hasNext ? QuestionCursor.next(questions.get(questions.size() - 1)).encode() : null);
+	}
+	
+	private List<Question> findByCursor(QuestionCursor cursor) {
+		Pageable limit = PageRequest.of(0, PAGE_SIZE + 1);
+		if (cursor == null) {
+			return this.questionRepository.findLatest(limit);
+		} else if (cursor.isPrevious()) {
+			return this.questionRepository.findNewerThan(cursor.getCreateDate(), cursor.getId(), limit);
+		} else {
+			return this.questionRepository.findOlderThan(cursor.getCreateDate(), cursor.getId(), limit);
+		}
+	}
+	
+	// 결과는 findByCursor와 같은 순서(다음: 최신순, 이전: 오래된 순)로 반환한다.
+	private List<Question> searchByCursor(String kw, QuestionCursor cursor) {
+		if (!this.questionSearchIndex.canSearch(kw)) {
+			return searchByCursorInDb(kw, cursor);
+		}
+		List<QuestionCursor> matches = this.questionSearchIndex.searchLatest(kw);
+		List<QuestionCursor> selected = new ArrayList<>();
+		if (cursor == null) {
+			selected.addAll(matches.subList(0, Math.min(PAGE_SIZE + 1, matches.size())));
+		} else if (cursor.isPrevious()) {
+			for (int i = matches.size() - 1; i >= 0 && selected.size() <= PAGE_SIZE; i--) {
+				if (QuestionCursor.ORDER.compare(matches.get(i), cursor) < 0) {
+					selected.add(matches.get(i));
+				}
+			}
+		} else {
+			for (int i = 0; i < matches.size() && selected.size() <= PAGE_SIZE; i++) {
+				if (QuestionCursor.ORDER.compare(matches.get(i), cursor) > 0) {
+					selected.add(matches.get(i));
+				}
+			}
+		}
+		List<Integer> ids = selected.stream().map(QuestionCursor::getId).toList();
+		Map<Integer, Question> byId = this.questionRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Question::getId, Function.identity()));
+		return ids.stream().map(byId::get).filter(q -> q != null).toList();
+	}
+	
+	// 색인으로 검색할 수 없는 검색어(canSearch)의 커서 페이징: LIKE 검색에 (작성일시, id) 조건을 더한다.
+	private List<Question> searchByCursorInDb(String kw, QuestionCursor cursor) {
 		Specification<Question> spec = search(kw);
-		return this.questionRepository.findAllByKeyword(kw, pageable);
+		Sort.Direction direction = Sort.Direction.DESC;
+		if (cursor != null) {
+			boolean previous = cursor.isPrevious();
+			spec = spec.and((q, query, cb) -> {
+				Path<LocalDateTime> createDate = q.get("createDate");
+				Path<Integer> id = q.get("id");
+				if (previous) {
+					return cb.or(cb.greaterThan(createDate, cursor.getCreateDate()), cb.and(
+							cb.equal(createDate, cursor.getCreateDate()), cb.greaterThan(id, cursor.getId())));
+				}
+				return cb.or(cb.lessThan(createDate, cursor.getCreateDate()), cb.and(
+						cb.equal(createDate, cursor.getCreateDate()), cb.lessThan(id, cursor.getId())));
+			});
+			direction = previous ? Sort.Direction.ASC : Sort.Direction.DESC;
+		}
+		Pageable limit = PageRequest.of(0, PAGE_SIZE + 1, Sort.by(direction, "createDate", "id"));
+		return this.questionRepository.findAll(spec, limit).getContent();
 	}
 	
 	// 수정
+	@Transactional
 	public void modify(Question question, String subjet, String content) {
 		question.setSubject(subjet);
 		question.setContent(content);
+		question.setContentHtml(this.commonUtil.render(content));
+		question.setRenderVersion(CommonUtil.RENDERER_VERSION);
 		question.setModifyDate(LocalDateTime.now());
 		this.questionRepository.save(question);
+		this.questionSearchIndex.indexQuestion(question);
+		this.questionSuggestIndex.put(question);
+		this.questionListVersion.increment();
 	}
 	
 	// 삭제
+	// 답변과 추천까지 한 번에 지우면 요청이 오래 걸리므로 삭제 표시만 한다. (목록, 검색, 상세에서 제외된다.)
+	// 답변과 추천, 질문 행은 QuestionPurger가 백그라운드에서 지운다.
+	@Transactional
 	public void delete(Question question) {
-		this.questionRepository.delete(question);
+		this.questionRepository.softDelete(question.getId(), LocalDateTime.now());
+		this.entityCacheEvictor.evict(Question.class, question.getId());
+		this.questionSearchIndex.removeQuestion(question.getId());
+		this.questionSuggestIndex.remove(question.getId());
+		this.questionHotRanking.remove(question.getId());
+		this.questionListVersion.increment();
 	}
 	
 	// 추천
+	// voter 컬렉션 전체를 메모리에 올리지 않고 조건부 INSERT 한 번으로 중복 추천을 막는다.
+	// 새로 추가된 경우에만 추천 수 컬럼을 올린다. (두 작업 사이에 장애가 나면 CountReconciler가 보정한다.)
+	// 중복 추천 예외를 처리해야 하므로 트랜잭션으로 묶지 않는다. (각 쿼리가 자신의 트랜잭션에서 primary로 실행된다.)
     public void vote(Question question, SiteUser siteUser) {
-        question.getVoter().add(siteUser);
-        this.questionRepository.save(question);
+        int inserted;
+        try {
+            inserted = this.questionRepository.insertVoter(question.getId(), siteUser.getId());
+        } catch (DataIntegrityViolationException e) {
+            return; // 같은 사용자의 동시 추천: 이미 추천된 것으로 처리
+        }
+        if (inserted > 0) {
+            this.questionRepository.updateVoteCount(question.getId(), 1);
+            this.entityCacheEvictor.evict(Question.class, question.getId());
+            this.questionSuggestIndex.addVote(question.getId());
+            this.questionHotRanking.addVote(question);
+            this.questionListVersion.increment();
+        }
     }
     
-    // 검색
-    private Specification<Question> search(String kw) {
+    // 검색 (LIKE 방식, 색인으로 검색할 수 없는 검색어와 검색 색인과 비교하는 벤치마크에서 사용)
+    Specification<Question> search(String kw) {
     	return new Specification<>() {
     		private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,225 @@
+package com.mysite.sbb.question;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/* 질문 제목 자동완성(search-as-you-type)용 접두어 색인
+ * - 제목을 정규화(NFC, 소문자, 공백 정리)하고 한글 음절을 자모로 분해한 문자열(키)의 순서로 정렬해 둔다.
+ * 	"한" -> "ㅎㅏㄴ" 이므로 입력 중인 "하", "한", "한ㄱ"이 모두 "한국"의 접두어가 된다. (겹받침, 이중모음도 나눈다.)
+ * - 결과는 가중치(추천 수, 답변 수) 순이다. 가중치 순 목록과 접두어 범위를 각각 최대 SCAN_LIMIT개만 확인하므로
+ * 	질문 수와 관계없이 응답 시간이 일정하다.
+ * 	가중치 순으로 훑어서 limit개를 찾았거나 접두어 범위가 SCAN_LIMIT개 이하이면 정확한 상위 결과이고,
+ * 	둘 다 아닌 드문 경우(짧은 접두어에 인기 없는 제목만 많은 경우)에만 근사값이다.
+ * - 질문 등록/수정/삭제, 추천, 답변 등록/삭제 시 서비스에서 갱신하고 애플리케이션 시작 시 DB에서 다시 만든다.
+ */
+@RequiredArgsConstructor
+@Component
+public class QuestionSuggestIndex {
+	public static final int MAX_SUGGESTIONS = 10;
+	private static final int SCAN_LIMIT = 2000;
+	private static final int MAX_KEY_LENGTH = 40; // 키는 앞쪽 자모 40자까지만 보관한다. (메모리)
+	private static final int VOTE_WEIGHT = 2; // 추천 1개는 답변 2개와 같은 가중치
+	private static final int REBUILD_BATCH_SIZE = 1000;
+
+	// 한글 호환 자모 (초성 19, 중성 21, 종성 27 + 없음)
+	private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+	private static final String JUNGSEONG = "ㅏㅐㅑㅒㅓㅔㅕㅖㅗㅘㅙㅚㅛㅜㅝㅞㅟㅠㅡㅢㅣ";
+	private static final String JONGSEONG = " ㄱㄲㄳㄴㄵㄶㄷㄹㄺㄻㄼㄽㄾㄿㅀㅁㅂㅄㅅㅆㅇㅈㅊㅋㅌㅍㅎ";
+	// 자판에서 두 번 입력하는 겹받침, 이중모음
+	private static final Map<Character, String> COMPOUND_JAMO = Map.ofEntries(
+			Map.entry('ㄳ', "ㄱㅅ"), Map.entry('ㄵ', "ㄴㅈ"), Map.entry('ㄶ', "ㄴㅎ"), Map.entry('ㄺ', "ㄹㄱ"),
+			Map.entry('ㄻ', "ㄹㅁ"), Map.entry('ㄼ', "ㄹㅂ"), Map.entry('ㄽ', "ㄹㅅ"), Map.entry('ㄾ', "ㄹㅌ"),
+			Map.entry('ㄿ', "ㄹㅍ"), Map.entry('ㅀ', "ㄹㅎ"), Map.entry('ㅄ', "ㅂㅅ"),
+			Map.entry('ㅘ', "ㅗㅏ"), Map.entry('ㅙ', "ㅗㅐ"), Map.entry('ㅚ', "ㅗㅣ"), Map.entry('ㅝ', "ㅜㅓ"),
+			Map.entry('ㅞ', "ㅜㅔ"), Map.entry('ㅟ', "ㅜㅣ"), Map.entry('ㅢ', "ㅡㅣ"));
+
+	public record Suggestion(Integer id, String subject) {
+	}
+
+	// 항목은 바꾸지 않고 새로 만들어 교체한다. (정렬된 집합 안에서 순서가 바뀌지 않도록)
+	private record Entry(int id, String subject, String key, int voteCount, int answerCount) {
+		int weight() {
+			return this.voteCount * VOTE_WEIGHT + this.answerCount;
+		}
+	}
+
+	private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::key).thenComparingInt(Entry::id);
+	private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingInt(Entry::weight).reversed()
+			.thenComparingInt(Entry::id);
+
+	private final QuestionRepository questionRepository;
+
+	// 조회는 잠금 없이 하고, 갱신은 synchronized 메서드에서 세 자료구조를 함께 바꾼다.
+	private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Entry> byKey = new ConcurrentSkipListSet<>(BY_KEY);
+	private final ConcurrentSkipListSet<Entry> byWeight = new ConcurrentSkipListSet<>(BY_WEIGHT);
+
+	// 질문 등록/수정 시 호출
+	public void put(Question question) {
+		put(question.getId(), question.getSubject(), question.getVoteCount(), question.getAnswerCount());
+	}
+
+	public synchronized void put(Integer id, String subject, int voteCount, int answerCount) {
+		replace(id, new Entry(id, subject != null ? subject : "", key(subject), voteCount, answerCount));
+	}
+
+	// 질문 삭제 시 호출
+	public synchronized void remove(Integer id) {
+		replace(id, null);
+	}
+
+	// 추천 시 호출
+	public synchronized void addVote(Integer id) {
+		Entry entry = this.entries.get(id);
+		if (entry != null) {
+			replace(id, new Entry(entry.id(), entry.subject(), entry.key(), entry.voteCount() + 1, entry.answerCount()));
+		}
+	}
+
+	// 답변 등록(1)/삭제(-1) 시 호출
+	public synchronized void addAnswers(Integer id, int delta) {
+		Entry entry = this.entries.get(id);
+		if (entry != null) {
+			replace(id, new Entry(entry.id(), entry.subject(), entry.key(), entry.voteCount(), entry.answerCount() + delta));
+		}
+	}
+
+	// 입력 중인 검색어로 시작하는 제목을 가중치 순으로 최대 limit개 반환한다.
+	public List<Suggestion> suggest(String query, int limit) {
+		String prefix = key(query);
+		if (prefix.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+		TreeSet<Entry> top = new TreeSet<>(BY_WEIGHT);
+		// 1) 가중치가 큰 순서로 훑는다. 앞에서부터 limit개를 찾으면 그대로 상위 결과다.
+		int scanned = 0;
+		for (Entry entry : this.byWeight) {
+			if (top.size() >= limit || ++scanned > SCAN_LIMIT) {
+				break;
+			}
+			if (entry.key().startsWith(prefix)) {
+				top.add(entry);
+			}
+		}
+		// 2) 부족하면 접두어 범위에서 가중치가 큰 것을 고른다.
+		if (top.size() < limit) {
+			scanned = 0;
+			for (Entry entry : this.byKey.subSet(probe(prefix), probe(prefix + Character.MAX_VALUE))) {
+				if (++scanned > SCAN_LIMIT) {
+					break;
+				}
+				top.add(entry);
+				if (top.size() > limit) {
+					top.pollLast();
+				}
+			}
+		}
+		// 갱신 중인 항목은 이전 값과 새 값이 함께 보일 수 있으므로 id로 중복을 제거한다.
+		List<Suggestion> suggestions = new ArrayList<>(top.size());
+		Set<Integer> ids = new HashSet<>();
+		for (Entry entry : top) {
+			if (ids.add(entry.id())) {
+				suggestions.add(new Suggestion(entry.id(), entry.subject()));
+			}
+		}
+		return suggestions;
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	// 애플리케이션 시작 시 DB의 질문으로 색인을 다시 만든다. (id 순서로 keyset 조회)
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		synchronized (this) {
+			this.entries.clear();
+			this.byKey.clear();
+			this.byWeight.clear();
+		}
+		int afterId = 0;
+		List<QuestionRepository.SuggestSource> sources;
+		do {
+			sources = this.questionRepository.findSuggestSources(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+			for (QuestionRepository.SuggestSource source : sources) {
+				put(source.getId(), source.getSubject(), source.getVoteCount(), source.getAnswerCount());
+				afterId = source.getId();
+			}
+		} while (sources.size() == REBUILD_BATCH_SIZE);
+	}
+
+	// (synchronized 메서드에서 호출)
+	private void replace(Integer id, Entry entry) {
+		Entry previous = entry != null ? this.entries.put(id, entry) : this.entries.remove(id);
+		if (previous != null) {
+			this.byKey.remove(previous);
+			this.byWeight.remove(previous);
+		}
+		if (entry != null) {
+			this.byKey.add(entry);
+			this.byWeight.add(entry);
+		}
+	}
+
+	// 범위 검색용 경계값 (키가 같으면 id가 가장 작은 항목보다 앞에 온다.)
+	private static Entry probe(String key) {
+		return new Entry(Integer.MIN_VALUE, "", key, 0, 0);
+	}
+
+	// 정규화 후 한글 음절을 자모로 분해한다. 공백은 하나로 줄인다.
+	static String key(String text) {
+		if (text == null) {
+			return "";
+		}
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT).strip();
+		StringBuilder sb = new StringBuilder(normalized.length() * 3);
+		boolean space = false;
+		for (int i = 0; i < normalized.length() && sb.length() < MAX_KEY_LENGTH; i++) {
+			char c = normalized.charAt(i);
+			if (Character.isWhitespace(c)) {
+				space = true;
+				continue;
+			}
+			if (space) {
+				sb.append(' ');
+				space = false;
+			}
+			if (c >= '가' && c <= '힣') {
+				int s = c - '가';
+				sb.append(CHOSEONG.charAt(s / (21 * 28)));
+				appendJamo(sb, JUNGSEONG.charAt(s % (21 * 28) / 28));
+				if (s % 28 != 0) {
+					appendJamo(sb, JONGSEONG.charAt(s % 28));
+				}
+			} else {
+				appendJamo(sb, c);
+			}
+		}
+		return sb.length() > MAX_KEY_LENGTH ? sb.substring(0, MAX_KEY_LENGTH) : sb.toString();
+	}
+
+	private static void appendJamo(StringBuilder sb, char c) {
+		String compound = COMPOUND_JAMO.get(c);
+		if (compound != null) {
+			sb.append(compound);
+		} else {
+			sb.append(c);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.mysite.sbb.question;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+// 질문 조회수 (write-behind)
+// 상세 화면을 볼 때마다 UPDATE하면 인기 질문의 행이 잠금 경합 지점이 되므로, 질문 id별 LongAdder(스레드별로 나눠 더하는 카운터)에 모았다가
+// flush-interval마다 쌓인 만큼 한 번의 배치 UPDATE로 더한다. 애플리케이션 종료 시에도 남은 값을 저장한다.
+// 모으는 질문 수는 max-keys개로 제한한다. 가득 차면 새 질문의 조회는 바로 UPDATE한다. (자주 조회되는 질문은 이미 모으는 중이다.)
+// 조회수는 상세 화면의 ETag에 포함하지 않는다. (조회할 때마다 304 응답을 사용할 수 없게 되므로)
+// 조회수는 Question 엔티티(2차 캐시)에 매핑하지 않는다. 저장할 때마다 조회된 질문의 캐시를 비우지 않도록 화면에 보여줄 때 따로 읽는다.
+@Slf4j
+@Component
+public class QuestionViewCounter implements DisposableBean {
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int maxKeys;
+
+	private final Map<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+	// 지난 flush에서 pending에서 제거한 카운터 (flushLock을 잡은 상태에서만 사용한다.)
+	// 제거 직전에 카운터를 얻은 요청은 제거된 카운터에 더하므로, 다음 flush에서 그 값을 pending으로 옮긴다.
+	private final Map<Integer, LongAdder> retired = new HashMap<>();
+	// 저장 중 DB I/O를 하므로 synchronized 대신 사용한다. (가상 스레드 고정 방지)
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final Counter overflow;
+	private volatile long lastFlushNanos = System.nanoTime();
+
+	public QuestionViewCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry,
+			@Value("${sbb.view.max-keys:10000}") int maxKeys) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.maxKeys = maxKeys;
+		Gauge.builder("sbb.question.views.pending", this.pending, Map::size)
+				.description("Questions with view counts not yet written to the database")
+				.register(meterRegistry);
+		// 마지막으로 저장에 성공한 뒤 지난 시간 (저장이 계속 실패하면 커진다.)
+		TimeGauge.builder("sbb.question.views.flush.lag", this, TimeUnit.NANOSECONDS,
+				counter -> System.nanoTime() - counter.lastFlushNanos)
+				.description("Time since view counts were last written to the database")
+				.register(meterRegistry);
+		this.overflow = Counter.builder("sbb.question.views.overflow")
+				.description("Views written directly because the pending key set was full")
+				.register(meterRegistry);
+	}
+
+	// 상세 화면 조회 시 호출
+	public void increment(Integer questionId) {
+		LongAdder adder = this.pending.get(questionId);
+		if (adder == null) {
+			if (this.pending.size() >= this.maxKeys) {
+				this.overflow.increment();
+				add(questionId, 1);
+				return;
+			}
+			adder = this.pending.computeIfAbsent(questionId, id -> new LongAdder());
+		}
+		adder.increment();
+	}
+
+	// 화면에 보여줄 조회수: 저장된 값 + 아직 저장하지 않은 값
+	public long count(Question question) {
+		Long saved = this.jdbcTemplate.queryForObject("select view_count from question where id = ?", Long.class, question.getId());
+		LongAdder adder = this.pending.get(question.getId());
+		return (saved != null ? saved : 0) + (adder != null ? adder.sum() : 0);
+	}
+
+	@Scheduled(initialDelayString = "${sbb.view.flush-interval:10s}", fixedDelayString = "${sbb.view.flush-interval:10s}")
+	public void flush() {
+		this.flushLock.lock();
+		try {
+			this.retired.forEach((id, adder) -> {
+				long late = adder.sum();
+				if (late > 0) {
+					this.pending.computeIfAbsent(id, key -> new LongAdder()).add(late);
+				}
+			});
+			this.retired.clear();
+			// id 순서로 UPDATE해서 다른 작업과 잠금 순서가 엇갈리지 않게 한다.
+			Map<Integer, Long> views = new TreeMap<>();
+			for (Map.Entry<Integer, LongAdder> entry : this.pending.entrySet()) {
+				long sum = entry.getValue().sum();
+				if (sum == 0) {
+					// 지난 주기 동안 조회가 없던 질문은 제거해서 키 수를 제한한다.
+					// 제거와 동시에 들어온 조회는 다음 flush에서 옮긴다. (retired)
+					if (this.pending.remove(entry.getKey(), entry.getValue())) {
+						this.retired.put(entry.getKey(), entry.getValue());
+					}
+				} else {
+					views.put(entry.getKey(), sum);
+				}
+			}
+			if (!views.isEmpty()) {
+				List<Object[]> updates = new ArrayList<>(views.size());
+				views.forEach((id, sum) -> updates.add(new Object[] { sum, id }));
+				this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate
+						.batchUpdate("update question set view_count = view_count + ? where id = ?", updates));
+				// 저장에 성공한 만큼만 뺀다. (그사이 들어온 조회는 남는다. 실패하면 다음 주기에 다시 저장한다.)
+				views.forEach((id, sum) -> this.pending.get(id).add(-sum));
+			}
+			this.lastFlushNanos = System.nanoTime();
+		} finally {
+			this.flushLock.unlock();
+		}
+	}
+
+	// 종료 시 남은 조회수를 저장한다. (웹 서버가 요청 처리를 마친 뒤, DataSource가 닫히기 전에 호출된다.)
+	@Override
+	public void destroy() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			log.warn("failed to flush {} pending view counts on shutdown", this.pending.size(), e);
+		}
+	}
+
+	private void add(Integer questionId, long views) {
+		this.jdbcTemplate.update("update question set view_count = view_count + ? where id = ?", views, questionId);
+	}
+}
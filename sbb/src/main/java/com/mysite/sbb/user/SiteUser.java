@@ -1,19 +1,29 @@
 package com.mysite.sbb.user;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.mysite.sbb.IdSequenceAligner;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "siteUser")
 public class SiteUser { // 스프링 시큐리티에 이미 User클래스가 있기 때문에 다른 클래스명을 사용하는 것이 좋다.
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "site_user_seq")
+	@SequenceGenerator(name = "site_user_seq", sequenceName = "site_user_seq", allocationSize = IdSequenceAligner.ALLOCATION_SIZE)
 	private long id;
 	
 	@Column(unique = true) // 유일한 값만 저장할 수 있다. 값 중복 불가
@@ -0,0 +1,22 @@
+package com.mysite.sbb.user;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import lombok.Getter;
+
+// 로그인한 사용자 정보 (세션에 저장된다.)
+// 스프링 시큐리티의 User에 SiteUser의 id를 함께 보관하여, 요청마다 사용자명으로 DB를 다시 조회하지 않도록 한다.
+@Getter
+public class SiteUserPrincipal extends User {
+	private static final long serialVersionUID = 1L;
+
+	private final long id;
+
+	public SiteUserPrincipal(long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+		super(username, password, authorities);
+		this.id = id;
+	}
+}
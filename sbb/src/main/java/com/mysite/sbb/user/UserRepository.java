@@ -2,8 +2,15 @@ package com.mysite.sbb.user;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 public interface UserRepository extends JpaRepository<SiteUser, Long>{
+	// 로그인 사용자 조회가 잦으므로 쿼리 캐시를 사용한다. (site_user 테이블이 변경되면 무효화된다.)
+	// 쿼리 캐시에는 id만 저장되고 엔티티는 2차 캐시(siteUser 영역)에서 가져온다. 별도의 사용자 캐시는 두지 않는다.
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	Optional<SiteUser> findByusername(String username);
 }
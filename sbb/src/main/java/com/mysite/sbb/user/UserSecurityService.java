@@ -6,7 +6,6 @@ import java.util.Optional;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -36,7 +35,8 @@ public class UserSecurityService implements UserDetailsService { // 스프링 
 		}
 		// User 객체를 생성해 반환한다. 이 객체는 스프링 시큐리티에서 사용하며 User 생성자에는 사용자명, 비밀번호, 권한 리스트가 전달된다.
 		// 리턴된 User 객체의 비밀번호가 사용자로부터 입력받은 비밀번호와 일치하는지를 검사하는 기능을 내부에 가지고 있다.
-		return new User(siteUser.getUsername(), siteUser.getPassword(), authorities);
+		// SiteUserPrincipal은 User에 SiteUser의 id를 추가한 것이다. (UserService.getUser(Principal) 참고)
+		return new SiteUserPrincipal(siteUser.getId(), siteUser.getUsername(), siteUser.getPassword(), authorities);
 	}
 	
 }
@@ -1,10 +1,13 @@
 package com.mysite.sbb.user;
 
+import java.security.Principal;
 import java.util.Optional;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mysite.sbb.DataNotFoundException;
 
@@ -17,6 +20,7 @@ public class UserService {
 	// new 객체가 아닌 Bean으로 등록해서 사용
 	private final PasswordEncoder passwordEncoder;
 	
+	@Transactional
 	public SiteUser create(String username, String email, String password) {
 		SiteUser user = new SiteUser();
 		user.setUsername(username);
@@ -30,6 +34,7 @@ public class UserService {
 	}
 	
 	// princial 객체를 사용하면 로그인한 사용자명을 알 수 있으므로 사용자명으로 SiteUser 객체를 조회할 수 있다.
+	@Transactional(readOnly = true)
 	public SiteUser getUser(String username) {
 		Optional<SiteUser>  siteUser = this.userRepository.findByusername(username);
 		if (siteUser.isPresent()) {
@@ -38,4 +43,14 @@ public class UserService {
 			throw new DataNotFoundException("siteuser not found");
 		}
 	}
+	
+	// 로그인한 사용자의 SiteUser 참조 (작성자, 추천인 설정용)
+	// 로그인 시 principal에 id를 담아두었으므로 DB를 조회하지 않고 프록시(getReferenceById)를 사용한다. 이전 방식으로 로그인된 세션은 사용자명으로 조회한다.
+	public SiteUser getUser(Principal principal) {
+		if (principal instanceof Authentication authentication
+				&& authentication.getPrincipal() instanceof SiteUserPrincipal siteUserPrincipal) {
+			return this.userRepository.getReferenceById(siteUserPrincipal.getId());
+		}
+		return getUser(principal.getName());
+	}
 }
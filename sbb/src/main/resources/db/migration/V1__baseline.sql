@@ -0,0 +1,66 @@
+-- 기준 스키마: spring.jpa.hibernate.ddl-auto=update로 만들어지던 스키마와 같다.
+-- 이미 테이블이 있는 DB는 이 버전으로 baseline 처리되고(spring.flyway.baseline-on-migrate) V2부터 적용된다.
+-- id는 시퀀스에서 50개씩 할당한다. (IdSequenceAligner.ALLOCATION_SIZE와 같아야 스키마 검증을 통과한다.)
+create sequence site_user_seq start with 1 increment by 50;
+create sequence question_seq start with 1 increment by 50;
+create sequence answer_seq start with 1 increment by 50;
+
+create table site_user (
+	id bigint not null,
+	email varchar(255),
+	password varchar(255),
+	username varchar(255),
+	primary key (id),
+	constraint uk_site_user_email unique (email),
+	constraint uk_site_user_username unique (username)
+);
+
+create table question (
+	id integer not null,
+	subject varchar(200),
+	content text,
+	content_html text,
+	render_version integer default 0 not null,
+	create_date timestamp(6),
+	modify_date timestamp(6),
+	delete_date timestamp(6),
+	author_id bigint,
+	answer_count integer default 0 not null,
+	vote_count integer default 0 not null,
+	primary key (id),
+	constraint fk_question_author foreign key (author_id) references site_user
+);
+
+create table answer (
+	id integer not null,
+	content text,
+	content_html text,
+	render_version integer default 0 not null,
+	create_date timestamp(6),
+	modify_date timestamp(6),
+	question_id integer,
+	author_id bigint,
+	vote_count integer default 0 not null,
+	primary key (id),
+	constraint fk_answer_question foreign key (question_id) references question,
+	constraint fk_answer_author foreign key (author_id) references site_user
+);
+
+create table question_voter (
+	question_id integer not null,
+	voter_id bigint not null,
+	primary key (question_id, voter_id),
+	constraint fk_question_voter_question foreign key (question_id) references question,
+	constraint fk_question_voter_voter foreign key (voter_id) references site_user
+);
+
+create table answer_voter (
+	answer_id integer not null,
+	voter_id bigint not null,
+	primary key (answer_id, voter_id),
+	constraint fk_answer_voter_answer foreign key (answer_id) references answer,
+	constraint fk_answer_voter_voter foreign key (voter_id) references site_user
+);
+
+-- 삭제 표시된 질문 조회 (QuestionPurger)
+create index idx_question_delete_date on question (delete_date);
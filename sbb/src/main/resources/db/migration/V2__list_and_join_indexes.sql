@@ -0,0 +1,14 @@
+-- 질문 목록: QuestionService.getList의 정렬((작성일시, id) 역순)과 커서 조건(findOlderThan)을 인덱스 순서로 읽는다.
+-- 역순 정렬을 그대로 사용할 수 있도록 desc로 만든다.
+create index idx_question_create_date_id on question (create_date desc, id desc);
+
+-- 답변 목록: 질문별 최신순 정렬(AnswerService.getList), 답변 위치 계산(countNewer), 질문 삭제 시 답변 조회(QuestionPurger)
+create index idx_answer_question_create_date_id on answer (question_id, create_date desc, id desc);
+
+-- 작성자 외래키: 검색(findAllByKeyword)과 내보내기의 작성자 조인, 사용자별 조회
+create index idx_question_author on question (author_id);
+create index idx_answer_author on answer (author_id);
+
+-- 추천 테이블: 기본키(question_id/answer_id, voter_id)는 추천한 사용자 기준 조회에 사용할 수 없다.
+create index idx_question_voter_voter on question_voter (voter_id);
+create index idx_answer_voter_voter on answer_voter (voter_id);
@@ -0,0 +1,2 @@
+-- 질문 조회수 (QuestionViewCounter가 모아서 더한다.)
+alter table question add column view_count integer default 0 not null;
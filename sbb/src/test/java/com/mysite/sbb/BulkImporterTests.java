@@ -0,0 +1,121 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// 대량 가져오기 테스트
+// 배치를 넘어가는 질문 -> 답변 참조와, 새로 실행했을 때 체크포인트 다음 줄부터 이어서 처리하는지 확인한다.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bulk-import;DB_CLOSE_DELAY=-1",
+		"sbb.markdown.backfill.enabled=false",
+		"sbb.purge.enabled=false" })
+class BulkImporterTests {
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private IdSequenceAligner idSequenceAligner;
+
+	@TempDir
+	private Path dir;
+
+	@Test
+	void test_crossBatchAndResume() throws Exception {
+		/* 배치 크기 2: 질문과 그 답변/추천이 서로 다른 배치에 있어도 연결되는지 테스트 */
+		Path file = this.dir.resolve("posts.ndjson");
+		Files.write(file, List.of(
+				"{\"type\":\"question\",\"id\":\"q1\",\"subject\":\"가져온 질문 1\",\"content\":\"내용\",\"author\":\"imp_kim\",\"createDate\":\"2020-01-01T10:00:00\"}",
+				"{\"type\":\"question\",\"id\":\"q2\",\"subject\":\"가져온 질문 2\",\"content\":\"내용\",\"author\":\"imp_lee\"}",
+				"{\"type\":\"answer\",\"id\":\"a1\",\"question\":\"q1\",\"content\":\"가져온 답변 1\",\"author\":\"imp_park\"}",
+				"{\"type\":\"vote\",\"question\":\"q1\",\"voter\":\"imp_lee\"}"), StandardCharsets.UTF_8);
+		importer(file).run(new DefaultApplicationArguments());
+
+		assertEquals(4L, checkpoint());
+		assertEquals(1, count("select count(*) from answer a join question q on q.id = a.question_id "
+				+ "where a.content = '가져온 답변 1' and q.subject = '가져온 질문 1'"));
+		assertEquals(0, count("select count(*) from question where subject like '가져온 질문%' and author_id is null"));
+		assertEquals(1, count("select count(*) from question_voter v join question q on q.id = v.question_id "
+				+ "join site_user u on u.id = v.voter_id where q.subject = '가져온 질문 1' and u.username = 'imp_lee'"));
+
+		/* 새 실행(빈 캐시): 이미 처리한 줄은 건너뛰고, 이전 실행의 질문/답변/사용자는 DB(import_mapping, site_user)에서 찾는다. */
+		Files.write(file, List.of(
+				"{\"type\":\"answer\",\"id\":\"a2\",\"question\":\"q2\",\"content\":\"가져온 답변 2\",\"author\":\"imp_kim\"}",
+				"{\"type\":\"vote\",\"answer\":\"a1\",\"voter\":\"imp_kim\"}",
+				"{\"type\":\"question\",\"id\":\"q3\",\"subject\":\"가져온 질문 3\",\"content\":\"내용\",\"author\":\"imp_park\"}"),
+				StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+		importer(file).run(new DefaultApplicationArguments());
+
+		assertEquals(7L, checkpoint());
+		assertEquals(3, count("select count(*) from question where subject like '가져온 질문%'"));
+		assertEquals(1, count("select count(*) from answer a join question q on q.id = a.question_id "
+				+ "where a.content = '가져온 답변 2' and q.subject = '가져온 질문 2'"));
+		assertEquals(1, count("select count(*) from answer_voter v join answer a on a.id = v.answer_id "
+				+ "join site_user u on u.id = v.voter_id where a.content = '가져온 답변 1' and u.username = 'imp_kim'"));
+		assertEquals(1, count("select count(*) from site_user where username = 'imp_kim'"));
+		assertEquals(3, count("select count(*) from site_user where username like 'imp_%'"));
+	}
+
+	@Test
+	void test_alignOnlyMovesForward() {
+		/* 다른 프로세스(가져오기, 두 번째 인스턴스)가 시작하면서 시퀀스를 맞춰도 이미 나간 id 범위를 다시 나눠주지 않는지 테스트 */
+		long held = nextValue(); // 실행 중인 애플리케이션이 받아 둔 범위 (held - 50, held]
+		this.idSequenceAligner.align();
+		long next = nextValue();
+		assertTrue(next - IdSequenceAligner.ALLOCATION_SIZE >= held, "next=" + next + ", held=" + held);
+
+		// 최대 id가 시퀀스보다 앞서 있으면(JDBC로 직접 넣은 데이터) 그 뒤로 옮긴다.
+		long maxId = next + IdSequenceAligner.ALLOCATION_SIZE * 10;
+		this.jdbcTemplate.update("insert into site_user (id, username, password, email) values (?, 'align_user', '!', 'align@import.invalid')", maxId);
+		this.idSequenceAligner.align();
+		assertTrue(nextValue() - IdSequenceAligner.ALLOCATION_SIZE >= maxId);
+	}
+
+	private long nextValue() {
+		return this.jdbcTemplate.queryForObject("select next value for site_user_seq", Long.class);
+	}
+
+	// 실행할 때마다 새로 만든다. (캐시와 id 블록이 비어 있는 재실행과 같다.)
+	private BulkImporter importer(Path file) {
+		BulkImporter importer = new BulkImporter(this.jdbcTemplate, this.namedParameterJdbcTemplate,
+				this.transactionTemplate, this.objectMapper);
+		ReflectionTestUtils.setField(importer, "file", file.toString());
+		ReflectionTestUtils.setField(importer, "job", "bulk-import-test");
+		ReflectionTestUtils.setField(importer, "batchSize", 2);
+		return importer;
+	}
+
+	private long checkpoint() {
+		return this.jdbcTemplate.queryForObject("select line from import_checkpoint where job = ?", Long.class, "bulk-import-test");
+	}
+
+	private int count(String sql) {
+		return this.jdbcTemplate.queryForObject(sql, Integer.class);
+	}
+}
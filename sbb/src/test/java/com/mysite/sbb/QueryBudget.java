@@ -0,0 +1,46 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+// 요청별 쿼리 예산 검사 (RequestQueryStatsFilter가 요청 속성에 남긴 RequestQueryStats 사용)
+// 예) mockMvc.perform(get("/question/list")).andExpect(QueryBudget.statements(3));
+public final class QueryBudget {
+	private QueryBudget() {
+	}
+
+	// 실행된 SQL이 max개를 넘으면 실패
+	public static ResultMatcher statements(int max) {
+		return result -> {
+			RequestQueryStats stats = stats(result);
+			if (stats.getStatements() > max) {
+				fail(message(result, "statements", stats.getStatements(), max, stats));
+			}
+		};
+	}
+
+	// 지연 로딩으로 초기화된 컬렉션이 max개를 넘으면 실패
+	public static ResultMatcher collections(int max) {
+		return result -> {
+			RequestQueryStats stats = stats(result);
+			if (stats.getCollectionsInitialized() > max) {
+				fail(message(result, "collections", stats.getCollectionsInitialized(), max, stats));
+			}
+		};
+	}
+
+	private static RequestQueryStats stats(MvcResult result) {
+		Object stats = result.getRequest().getAttribute(RequestQueryStats.ATTRIBUTE);
+		assertNotNull(stats, "RequestQueryStatsFilter was not applied");
+		return (RequestQueryStats) stats;
+	}
+
+	private static String message(MvcResult result, String name, int actual, int max, RequestQueryStats stats) {
+		return String.format("%s %s exceeded the query budget: %s=%d (max %d)%n%s%nrepeated: %s",
+				result.getRequest().getMethod(), result.getRequest().getRequestURI(), name, actual, max,
+				stats, stats.getRepeatedStatements(2));
+	}
+}
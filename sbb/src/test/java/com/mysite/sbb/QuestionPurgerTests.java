@@ -0,0 +1,86 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.answer.AnswerService;
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.question.QuestionService;
+
+// 질문 삭제(삭제 표시)와 백그라운드 정리 테스트
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:purge;DB_CLOSE_DELAY=-1",
+		// 스케줄 대신 테스트에서 직접 실행한다.
+		"sbb.purge.delay=1h",
+		"sbb.purge.batch-size=2" })
+class QuestionPurgerTests {
+	@Autowired
+	private QuestionService questionService;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private AnswerService answerService;
+
+	@Autowired
+	private QuestionPurger questionPurger;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void test_softDeleteAndPurge() {
+		/* 삭제한 질문은 바로 조회되지 않고, 답변은 배치 단위로 지워진 뒤 질문 행이 지워지는지 테스트 */
+		Question q = new Question();
+		Integer answerId = null;
+		q.setSubject("삭제할 질문");
+		q.setContent("내용");
+		q.setCreateDate(LocalDateTime.now());
+		this.questionRepository.save(q);
+		for (int i = 0; i < 3; i++) {
+			Answer a = new Answer();
+			a.setContent("답변 " + i);
+			a.setCreateDate(LocalDateTime.now());
+			a.setQuestion(q);
+			this.answerRepository.save(a);
+			answerId = a.getId();
+		}
+		Integer lastAnswerId = answerId;
+		assertEquals(3, this.answerService.getList(q.getId(), 0, AnswerService.SORT_LATEST).getNumberOfElements());
+
+		this.questionService.delete(this.questionService.getQuestion(q.getId()));
+		assertThrows(DataNotFoundException.class, () -> this.questionService.getQuestion(q.getId()));
+		assertFalse(this.questionRepository.findAll().stream().anyMatch(question -> question.getId().equals(q.getId())));
+		assertEquals(3, count("select count(*) from answer where question_id = ?", q.getId()));
+		// 정리되기 전에도 답변 목록, 수정/삭제/추천용 답변 조회에서 제외된다.
+		assertTrue(this.answerService.getList(q.getId(), 0, AnswerService.SORT_LATEST).isEmpty());
+		assertThrows(DataNotFoundException.class, () -> this.answerService.getAnswer(lastAnswerId));
+
+		this.questionPurger.purge(); // 답변 2개
+		assertEquals(1, count("select count(*) from answer where question_id = ?", q.getId()));
+		this.questionPurger.purge(); // 답변 1개
+		this.questionPurger.purge(); // 질문
+		assertEquals(0, count("select count(*) from answer where question_id = ?", q.getId()));
+		assertEquals(0, count("select count(*) from question where id = ?", q.getId()));
+	}
+
+	private int count(String sql, Integer id) {
+		return this.jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+}
@@ -0,0 +1,110 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.question.QuestionService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 읽기/쓰기 분리 테스트
+// 복제되지 않는 H2 인스턴스 두 개를 primary와 replica로 사용해서, 어느 쪽에서 조회했는지를 데이터로 구분한다.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+		"sbb.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+		// 2차 캐시 없이 DB에서 조회하는지 검사한다.
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+class ReadWriteRoutingDataSourceTests {
+	private static final int REPLICA_QUESTION_ID = 900000;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Autowired
+	private QuestionService questionService;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	// 애플리케이션 시작 시 조회(검색 색인 생성 등)도 replica에서 하므로 시작 전에 primary의 스키마를 replica에 만든다.
+	@TestConfiguration
+	static class ReplicaSchemaConfig {
+		@Bean
+		InitializingBean replicaSchema(EntityManagerFactory entityManagerFactory,
+				@Qualifier("primaryDataSource") DataSource primaryDataSource,
+				@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+			return () -> {
+				JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+				for (String statement : new JdbcTemplate(primaryDataSource).queryForList("script nodata", String.class)) {
+					if (!statement.startsWith("--") && !statement.startsWith("CREATE USER")) {
+						replica.execute(statement);
+					}
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		// replica에만 있는 질문
+		JdbcTemplate replica = new JdbcTemplate(this.replicaDataSource);
+		replica.update("delete from question");
+		replica.update("insert into question (id, subject, content, create_date, answer_count, vote_count) values (?, ?, ?, ?, 0, 0)",
+				REPLICA_QUESTION_ID, "replica 질문", "내용", LocalDateTime.now());
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void test_readOnlyTransactionUsesReplica() {
+		/* 쓰기는 primary, 읽기 전용 조회는 replica에서 하는지 테스트 */
+		this.questionService.create("primary 질문", "내용", null);
+		assertEquals("replica 질문", this.questionService.getQuestion(REPLICA_QUESTION_ID).getSubject());
+		assertNull(this.questionRepository.findBySubject("primary 질문"));
+		assertNotNull(new JdbcTemplate(this.primaryDataSource)
+				.queryForObject("select id from question where subject = ?", Integer.class, "primary 질문"));
+	}
+
+	@Test
+	void test_readYourWritesAfterWrite() {
+		/* 쓰기를 한 세션의 조회는 일정 시간 동안 primary에서 하는지 테스트 */
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		this.questionService.create("방금 쓴 질문", "내용", null);
+		assertNotNull(this.questionRepository.findBySubject("방금 쓴 질문"));
+		assertThrows(DataNotFoundException.class, () -> this.questionService.getQuestion(REPLICA_QUESTION_ID));
+
+		// 다른 세션(요청)은 여전히 replica에서 조회한다.
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		assertNull(this.questionRepository.findBySubject("방금 쓴 질문"));
+	}
+}
@@ -0,0 +1,126 @@
+package com.mysite.sbb;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+// 애플리케이션 시작 시간 (gradle benchmark 로 실행)
+// 새 JVM에서 SbbApplication을 실행하고 첫 요청(/question/list)이 200으로 응답할 때까지의 시간을 잰다.
+// 기본: 테스트 클래스패스로 기본 프로파일과 fast 프로파일을 비교한다.
+// AOT + CDS 배포 jar 측정 (gradle cdsArchive 이후):
+// gradle benchmark -Dsbb.startup.jar=build/cds/sbb.jar -Dsbb.startup.jvm-args="-XX:SharedArchiveFile=sbb.jsa -Dspring.aot.enabled=true"
+// -Dsbb.startup.budget-ms 를 지정하면 fast 프로파일의 중앙값이 이 시간을 넘을 때 실패한다.
+@Tag("benchmark")
+class StartupTimeBenchmark {
+	private static final int RUNS = 5;
+	private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void timeToFirstRequest() throws Exception {
+		String jar = System.getProperty("sbb.startup.jar");
+		if (jar == null) {
+			// AOT 처리된 클래스는 jar에만 있으므로 클래스패스 실행에서는 기본 프로파일과 비교한다.
+			report("default", measure(null, "default"));
+		}
+		long fast = report("fast", measure(jar, "fast"));
+		String budget = System.getProperty("sbb.startup.budget-ms");
+		if (budget != null) {
+			assertTrue(fast <= Long.parseLong(budget), "time to first request " + fast + " ms > budget " + budget + " ms");
+		}
+	}
+
+	// 실행 RUNS회의 첫 요청까지 걸린 시간(ms)
+	private List<Long> measure(String jar, String profile) throws Exception {
+		List<Long> times = new ArrayList<>();
+		for (int i = 0; i < RUNS; i++) {
+			int port = freePort();
+			List<String> command = new ArrayList<>();
+			command.add(ProcessHandle.current().info().command().orElse("java"));
+			String jvmArgs = System.getProperty("sbb.startup.jvm-args");
+			if (jvmArgs != null && !jvmArgs.isBlank()) {
+				command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+			}
+			ProcessBuilder builder = new ProcessBuilder(command);
+			if (jar != null) {
+				// CDS 아카이브는 만들 때와 같은 경로로 실행해야 사용되므로 jar가 있는 디렉터리에서 실행한다.
+				File file = new File(jar).getAbsoluteFile();
+				builder.directory(file.getParentFile());
+				command.addAll(List.of("-jar", file.getName()));
+			} else {
+				command.addAll(List.of("-cp", System.getProperty("java.class.path"), SbbApplication.class.getName()));
+			}
+			command.addAll(List.of("--server.port=" + port,
+					"--spring.profiles.active=" + profile,
+					"--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+					"--spring.jpa.properties.hibernate.show_sql=false",
+					"--spring.main.banner-mode=off",
+					"--logging.level.root=warn"));
+			builder.redirectErrorStream(true).redirectOutput(new File("build/startup-benchmark.log").getAbsoluteFile());
+
+			long start = System.nanoTime();
+			Process process = builder.start();
+			try {
+				waitForFirstRequest(process, port);
+				times.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			} finally {
+				process.destroy();
+				if (!process.waitFor(30, TimeUnit.SECONDS)) {
+					process.destroyForcibly();
+				}
+			}
+		}
+		return times;
+	}
+
+	private void waitForFirstRequest(Process process, int port) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/question/list")).build();
+		long deadline = System.nanoTime() + TIMEOUT.toNanos();
+		while (System.nanoTime() < deadline) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("application exited with " + process.exitValue() + " (build/startup-benchmark.log)");
+			}
+			try {
+				if (this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+					return;
+				}
+			} catch (IOException e) {
+				// 아직 포트가 열리지 않았다.
+			}
+			Thread.sleep(10);
+		}
+		throw new IllegalStateException("no response within " + TIMEOUT);
+	}
+
+	// 중앙값(ms)을 출력하고 반환한다.
+	private static long report(String profile, List<Long> times) {
+		List<Long> sorted = new ArrayList<>(times);
+		Collections.sort(sorted);
+		long median = sorted.get(sorted.size() / 2);
+		System.out.printf("%s: time to first request median=%d ms, min=%d ms, max=%d ms %s%n",
+				profile, median, sorted.get(0), sorted.get(sorted.size() - 1), times);
+		return median;
+	}
+
+	private static int freePort() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
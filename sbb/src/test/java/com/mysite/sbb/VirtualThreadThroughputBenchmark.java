@@ -0,0 +1,142 @@
+package com.mysite.sbb;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.question.Question;
+import com.mysite.sbb.question.QuestionRepository;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// 플랫폼 스레드 풀과 가상 스레드의 처리량 비교 (gradle benchmark 로 실행)
+// 동시 연결 1000개가 쉬지 않고 질문 상세 화면(JPA + H2 조회, 템플릿 렌더링)을 요청한다.
+// 2차 캐시를 끄고 매 요청이 DB를 조회하도록 한다.
+@Tag("benchmark")
+class VirtualThreadThroughputBenchmark {
+	private static final int CONNECTIONS = 1000;
+	private static final int WARMUP_SECONDS = 10;
+	private static final int SECONDS = 30;
+
+	@Nested
+	@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+			"spring.datasource.url=jdbc:h2:mem:platform-threads;DB_CLOSE_DELAY=-1",
+			"spring.jpa.properties.hibernate.show_sql=false",
+			"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+			"spring.jpa.properties.hibernate.cache.use_query_cache=false",
+			"spring.threads.virtual.enabled=false" })
+	class PlatformThreads extends Scenario {
+	}
+
+	@Nested
+	@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+			"spring.datasource.url=jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1",
+			"spring.jpa.properties.hibernate.show_sql=false",
+			"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+			"spring.jpa.properties.hibernate.cache.use_query_cache=false",
+			"spring.threads.virtual.enabled=true",
+			"sbb.virtual.pinned-threshold=1ms" })
+	class VirtualThreads extends Scenario {
+	}
+
+	abstract static class Scenario {
+		@LocalServerPort
+		private int port;
+
+		@Autowired
+		private MeterRegistry meterRegistry;
+
+		@Autowired
+		private QuestionRepository questionRepository;
+
+		@Autowired
+		private AnswerRepository answerRepository;
+
+		@Autowired
+		private UserRepository userRepository;
+
+		@Test
+		void detail() throws Exception {
+			SiteUser user = new SiteUser();
+			user.setUsername("bench");
+			user.setEmail("bench@sbb.com");
+			user.setPassword("password");
+			this.userRepository.save(user);
+			List<Integer> ids = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				Question q = new Question();
+				q.setSubject("벤치마크 질문 " + i);
+				q.setContent("내용");
+				q.setCreateDate(LocalDateTime.now());
+				q.setAuthor(user);
+				this.questionRepository.save(q);
+				ids.add(q.getId());
+				for (int j = 0; j < 20; j++) {
+					Answer a = new Answer();
+					a.setContent("답변 " + j);
+					a.setCreateDate(LocalDateTime.now());
+					a.setQuestion(q);
+					a.setAuthor(user);
+					this.answerRepository.save(a);
+				}
+			}
+
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			AtomicLong completed = new AtomicLong();
+			AtomicLong errors = new AtomicLong();
+			long start = System.nanoTime();
+			long measureFrom = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+			long end = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+			// 클라이언트 쪽은 연결마다 가상 스레드 하나가 요청을 보내고 응답을 기다린다.
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int c = 0; c < CONNECTIONS; c++) {
+					executor.submit(() -> {
+						while (System.nanoTime() < end) {
+							int id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+							HttpRequest request = HttpRequest.newBuilder(
+									URI.create("http://localhost:" + this.port + "/question/detail/" + id)).build();
+							boolean ok;
+							try {
+								ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+							} catch (Exception e) {
+								ok = false;
+							}
+							if (System.nanoTime() >= measureFrom) {
+								(ok ? completed : errors).incrementAndGet();
+							}
+						}
+						return null;
+					});
+				}
+			}
+			double pinnedMillis = this.meterRegistry.find("sbb.virtual.pinned").timers().stream()
+					.mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS)).sum();
+			long pinnedCount = this.meterRegistry.find("sbb.virtual.pinned").timers().stream()
+					.mapToLong(Timer::count).sum();
+			System.out.printf("%s: %d connections, %.1f req/s, errors=%d, pinned=%d (%.1f ms)%n",
+					getClass().getSimpleName(), CONNECTIONS, (double) completed.get() / SECONDS, errors.get(),
+					pinnedCount, pinnedMillis);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.mysite.sbb.question;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 질문 상세 화면의 2차 캐시 사용/미사용 비교 (gradle benchmark 로 실행, 일반 test 에서는 제외된다.)
+// 같은 질문을 반복 조회하여 요청당 평균 시간과 실행된 쿼리 수를 출력한다.
+@Tag("benchmark")
+class QuestionDetailCacheBenchmark {
+	private static final int WARMUP = 200;
+	private static final int ITERATIONS = 2000;
+
+	@Nested
+	@SpringBootTest(properties = {
+			"spring.datasource.url=jdbc:h2:mem:detail-cache-on;DB_CLOSE_DELAY=-1",
+			"spring.jpa.properties.hibernate.show_sql=false",
+			"sbb.markdown.backfill.enabled=false",
+			"sbb.purge.enabled=false",
+			"sbb.view.flush-interval=1h" })
+	@AutoConfigureMockMvc
+	class CacheOn extends Scenario {
+	}
+
+	@Nested
+	@SpringBootTest(properties = {
+			"spring.datasource.url=jdbc:h2:mem:detail-cache-off;DB_CLOSE_DELAY=-1",
+			"spring.jpa.properties.hibernate.show_sql=false",
+			"sbb.markdown.backfill.enabled=false",
+			"sbb.purge.enabled=false",
+			"sbb.view.flush-interval=1h",
+			"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+			"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+	@AutoConfigureMockMvc
+	class CacheOff extends Scenario {
+	}
+
+	abstract static class Scenario {
+		@Autowired
+		private MockMvc mockMvc;
+
+		@Autowired
+		private EntityManagerFactory entityManagerFactory;
+
+		@Autowired
+		private QuestionRepository questionRepository;
+
+		@Autowired
+		private AnswerRepository answerRepository;
+
+		@Autowired
+		private UserRepository userRepository;
+
+		@Test
+		void detail() throws Exception {
+			SiteUser user = new SiteUser();
+			user.setUsername("bench");
+			user.setEmail("bench@sbb.com");
+			user.setPassword("password");
+			this.userRepository.save(user);
+			Question q = new Question();
+			q.setSubject("벤치마크 질문");
+			q.setContent("내용");
+			q.setCreateDate(LocalDateTime.now());
+			q.setAuthor(user);
+			this.questionRepository.save(q);
+			for (int i = 0; i < 50; i++) {
+				Answer a = new Answer();
+				a.setContent("답변 " + i);
+				a.setCreateDate(LocalDateTime.now());
+				a.setQuestion(q);
+				a.setAuthor(user);
+				this.answerRepository.save(a);
+			}
+
+			String uri = "/question/detail/" + q.getId();
+			for (int i = 0; i < WARMUP; i++) {
+				this.mockMvc.perform(get(uri)).andExpect(status().isOk());
+			}
+			Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+			statistics.clear();
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				this.mockMvc.perform(get(uri)).andExpect(status().isOk());
+			}
+			long elapsed = System.nanoTime() - start;
+			System.out.printf("%s: %.1f us/request, %.2f statements/request, L2 hit=%d miss=%d%n",
+					getClass().getSimpleName(),
+					elapsed / 1000.0 / ITERATIONS,
+					(double) statistics.getPrepareStatementCount() / ITERATIONS,
+					statistics.getSecondLevelCacheHitCount(),
+					statistics.getSecondLevelCacheMissCount());
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.mysite.sbb.question;
+
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.answer.AnswerService;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 질문 상세 화면의 쿼리 수 회귀 테스트
+// 답변이 많아도 지연 로딩(N+1)으로 쿼리가 늘어나지 않아야 한다.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:detail-query-count;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// 백그라운드 작업의 쿼리가 통계에 섞이지 않도록 한다.
+		"sbb.markdown.backfill.enabled=false",
+		"sbb.purge.enabled=false",
+		// 2차 캐시 없이 DB에서 조회할 때의 쿼리 수를 검사한다.
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureMockMvc
+class QuestionDetailQueryCountTests {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void test_detailQueryCountWith100Answers() throws Exception {
+		/* 답변 100개가 달린 질문 상세 화면의 쿼리 수 고정 테스트 */
+		SiteUser[] users = new SiteUser[10];
+		for (int i = 0; i < users.length; i++) {
+			SiteUser user = new SiteUser();
+			user.setUsername("user" + i);
+			user.setEmail("user" + i + "@sbb.com");
+			user.setPassword("password");
+			users[i] = this.userRepository.save(user);
+		}
+		Question q = new Question();
+		q.setSubject("답변이 많은 질문");
+		q.setContent("내용");
+		q.setCreateDate(LocalDateTime.now());
+		q.setAuthor(users[0]);
+		this.questionRepository.save(q);
+		for (int i = 0; i < 100; i++) {
+			Answer a = new Answer();
+			a.setContent("답변 " + i);
+			a.setCreateDate(LocalDateTime.now());
+			a.setQuestion(q);
+			a.setAuthor(users[i % users.length]);
+			this.answerRepository.save(a);
+		}
+
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		this.mockMvc.perform(get("/question/detail/" + q.getId()))
+				.andExpect(status().isOk())
+				.andExpect(model().attribute("answerPaging", hasProperty("numberOfElements", is(AnswerService.PAGE_SIZE))));
+		// ETag용 버전 1회, 질문 + 작성자 1회, 첫 페이지 답변 + 답변 작성자 1회 (답변 수와 관계없이 일정하다.)
+		assertEquals(3, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void test_detailNotModified() throws Exception {
+		/* 변경되지 않은 질문 상세 화면은 버전 조회만 하고 304로 응답하는지 테스트 */
+		Question q = new Question();
+		q.setSubject("ETag 질문");
+		q.setContent("내용");
+		q.setCreateDate(LocalDateTime.now());
+		this.questionRepository.save(q);
+
+		String etag = this.mockMvc.perform(get("/question/detail/" + q.getId()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		this.mockMvc.perform(get("/question/detail/" + q.getId()).header("If-None-Match", etag))
+				.andExpect(status().isNotModified());
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		// 답변이 등록되면 ETag가 바뀐다.
+		Answer a = new Answer();
+		a.setContent("새 답변");
+		a.setCreateDate(LocalDateTime.now());
+		a.setQuestion(q);
+		this.answerRepository.save(a);
+		this.mockMvc.perform(get("/question/detail/" + q.getId()).header("If-None-Match", etag))
+				.andExpect(status().isOk());
+	}
+}
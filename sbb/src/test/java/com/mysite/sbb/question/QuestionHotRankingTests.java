@@ -0,0 +1,121 @@
+package com.mysite.sbb.question;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class QuestionHotRankingTests {
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+	@Test
+	void test_votesAndDecay() {
+		/* 추천/답변 가중치와 시간 감소(반감기)에 따른 순서 테스트 */
+		QuestionHotRanking ranking = new QuestionHotRanking(null, Duration.ofHours(12));
+		ranking.put(1, NOW, 0, 0);
+		ranking.put(2, NOW.minusHours(12), 0, 3); // 가중치 3, 반감기 1회
+		ranking.put(3, NOW.minusHours(48), 5, 0); // 가중치 10, 반감기 4회
+		assertEquals(List.of(2, 1, 3), ranking.getIds(0, 10));
+
+		// 추천과 답변이 늘면 순서가 바뀐다.
+		Question third = question(3, NOW.minusHours(48), 5, 0);
+		for (int i = 0; i < 100; i++) {
+			ranking.addVote(third);
+		}
+		ranking.addAnswers(question(2, NOW.minusHours(12), 0, 3), 1);
+		assertEquals(List.of(3, 2, 1), ranking.getIds(0, 10));
+		assertEquals(List.of(2, 1), ranking.getIds(1, 10));
+
+		ranking.remove(3);
+		assertEquals(List.of(2, 1), ranking.getIds(0, 10));
+
+		// 삭제된 질문은 답변이 삭제/등록되어도 다시 들어오지 않는다.
+		Question deleted = question(3, NOW.minusHours(48), 105, 0);
+		deleted.setDeleteDate(NOW);
+		ranking.addAnswers(deleted, -1);
+		ranking.addAnswers(deleted, 1);
+		assertEquals(List.of(2, 1), ranking.getIds(0, 10));
+		// 보관 중이 아닌 질문은 답변 삭제로 새로 들어오지 않는다.
+		ranking.addAnswers(question(4, NOW, 0, 2), -1);
+		assertEquals(List.of(2, 1), ranking.getIds(0, 10));
+	}
+
+	@Test
+	void test_capacity() {
+		/* 점수가 높은 질문만 보관하고, 보관하지 않던 질문도 추천되면 순위에 들어오는지 테스트 */
+		QuestionHotRanking ranking = new QuestionHotRanking(null, Duration.ofHours(12));
+		for (int id = 1; id <= QuestionHotRanking.VISIBLE * 3; id++) {
+			ranking.put(id, NOW.plusMinutes(id), 0, 0);
+		}
+		assertEquals(QuestionHotRanking.VISIBLE, ranking.size());
+		List<Integer> ids = ranking.getIds(0, QuestionHotRanking.VISIBLE);
+		assertEquals(QuestionHotRanking.VISIBLE * 3, ids.get(0)); // 가장 최근 질문
+		assertTrue(ranking.getIds(QuestionHotRanking.VISIBLE, 10).isEmpty());
+
+		// 밀려난 오래된 질문(id 1)도 엔티티의 카운터로 점수를 계산해서 다시 들어온다.
+		Question oldest = question(1, NOW.plusMinutes(1), 50, 20);
+		ranking.addVote(oldest);
+		assertEquals(1, ranking.getIds(0, 1).get(0));
+	}
+
+	@Test
+	void test_rebuildSwapsIn() {
+		/* 다시 만드는 동안에는 기존 순위를 보여주고, 그동안 삭제된 질문은 DB에서 읽은 값으로 되살리지 않는지 테스트 */
+		List<QuestionHotRanking> holder = new ArrayList<>();
+		QuestionRepository repository = (QuestionRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { QuestionRepository.class }, (proxy, method, args) -> {
+					if (!method.getName().equals("findHotSources")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					QuestionHotRanking ranking = holder.get(0);
+					assertEquals(List.of(1), ranking.getIds(0, 10)); // 읽는 중에도 기존 순위가 보인다.
+					ranking.remove(2); // 읽은 뒤에 삭제된 질문
+					return List.of(hotSource(1, NOW, 0, 0), hotSource(2, NOW, 5, 0), hotSource(3, NOW, 1, 0));
+				});
+		QuestionHotRanking ranking = new QuestionHotRanking(repository, Duration.ofHours(12));
+		holder.add(ranking);
+		ranking.put(1, NOW, 0, 0);
+
+		ranking.rebuild();
+		assertEquals(List.of(3, 1), ranking.getIds(0, 10));
+	}
+
+	private static QuestionRepository.HotSource hotSource(int id, LocalDateTime createDate, int voteCount, int answerCount) {
+		return new QuestionRepository.HotSource() {
+			@Override
+			public Integer getId() {
+				return id;
+			}
+
+			@Override
+			public LocalDateTime getCreateDate() {
+				return createDate;
+			}
+
+			@Override
+			public int getVoteCount() {
+				return voteCount;
+			}
+
+			@Override
+			public int getAnswerCount() {
+				return answerCount;
+			}
+		};
+	}
+
+	private static Question question(int id, LocalDateTime createDate, int voteCount, int answerCount) {
+		Question q = new Question();
+		q.setId(id);
+		q.setCreateDate(createDate);
+		q.setVoteCount(voteCount);
+		q.setAnswerCount(answerCount);
+		return q;
+	}
+}
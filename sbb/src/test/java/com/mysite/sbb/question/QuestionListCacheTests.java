@@ -0,0 +1,171 @@
+package com.mysite.sbb.question;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 로그인하지 않은 사용자의 질문 목록 HTML 캐시(QuestionListCache) 테스트
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:list-cache;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// 백그라운드 작업의 쿼리가 통계에 섞이지 않도록 한다.
+		"sbb.markdown.backfill.enabled=false",
+		"sbb.purge.enabled=false",
+		// 캐시된 HTML이 2차 캐시가 아니라 목록 캐시에서 왔는지 쿼리 수로 확인한다.
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureMockMvc
+class QuestionListCacheTests {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private QuestionService questionService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private QuestionListVersion questionListVersion;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void test_anonymousListCached() throws Exception {
+		/* 로그인하지 않은 사용자의 목록 화면은 캐시된 HTML로 응답하고, 질문이 등록되면 다시 렌더링하는지 테스트 */
+		Question q = new Question();
+		q.setSubject("캐시 질문");
+		q.setContent("내용");
+		q.setCreateDate(LocalDateTime.now());
+		this.questionRepository.save(q);
+		this.questionListVersion.increment();
+
+		String first = this.mockMvc.perform(get("/question/list"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		String second = this.mockMvc.perform(get("/question/list"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(first, second);
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		// 버전이 바뀌면 캐시를 사용하지 않는다.
+		Question other = new Question();
+		other.setSubject("새로 등록된 질문");
+		other.setContent("내용");
+		other.setCreateDate(LocalDateTime.now());
+		this.questionRepository.save(other);
+		this.questionListVersion.increment();
+		String third = this.mockMvc.perform(get("/question/list"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(third.contains("새로 등록된 질문"));
+	}
+
+	@Test
+	void test_writeInvalidatesCachedList() throws Exception {
+		/* 서비스를 통한 질문 등록(쓰기)이 버전을 올려 캐시된 검색 결과 HTML을 무효화하는지 테스트 */
+		SiteUser user = new SiteUser();
+		user.setUsername("listcache");
+		user.setEmail("listcache@sbb.com");
+		user.setPassword("password");
+		this.userRepository.save(user);
+		this.questionService.create("무효화 확인 첫 질문", "내용", user);
+
+		String cached = this.mockMvc.perform(get("/question/list").param("kw", "무효화"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(cached.contains("무효화 확인 첫 질문"));
+		assertFalse(cached.contains("무효화 확인 둘째 질문"));
+
+		this.questionService.create("무효화 확인 둘째 질문", "내용", user);
+		String refreshed = this.mockMvc.perform(get("/question/list").param("kw", "무효화"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(refreshed.contains("무효화 확인 첫 질문"));
+		assertTrue(refreshed.contains("무효화 확인 둘째 질문"));
+	}
+
+	@Test
+	void test_versionIncrementedAfterCommit() {
+		/* 목록 버전은 커밋 후에 올라가고, 롤백되면 그대로인지 테스트 */
+		SiteUser user = new SiteUser();
+		user.setUsername("listversion");
+		user.setEmail("listversion@sbb.com");
+		user.setPassword("password");
+		this.userRepository.save(user);
+
+		long before = this.questionListVersion.get();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.questionService.create("커밋 전 질문", "내용", user);
+			// 커밋 전에는 이전 버전이므로 이 사이의 목록 요청은 이전 키로 캐시된다.
+			assertEquals(before, this.questionListVersion.get());
+		});
+		assertTrue(this.questionListVersion.get() > before);
+
+		long committed = this.questionListVersion.get();
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.questionService.create("롤백될 질문", "내용", user);
+			status.setRollbackOnly();
+		});
+		assertEquals(committed, this.questionListVersion.get());
+	}
+
+	@Test
+	void test_listEtagChangesAfterCommit() throws Exception {
+		/* 커밋 전에는 이전 ETag로 304, 커밋 후에는 새 ETag와 새 내용으로 응답하는지 테스트 */
+		SiteUser user = new SiteUser();
+		user.setUsername("listetag");
+		user.setEmail("listetag@sbb.com");
+		user.setPassword("password");
+		this.userRepository.save(user);
+		String etag = this.mockMvc.perform(get("/question/list"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.questionService.create("ETag 커밋 질문", "내용", user);
+			try {
+				this.mockMvc.perform(get("/question/list").header("If-None-Match", etag))
+						.andExpect(status().isNotModified());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		MockHttpServletResponse response = this.mockMvc.perform(get("/question/list").header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+		assertNotEquals(etag, response.getHeader("ETag"));
+		assertTrue(response.getContentAsString().contains("ETag 커밋 질문"));
+	}
+}
@@ -0,0 +1,80 @@
+package com.mysite.sbb.question;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+// 페이지 번호 방식에서 커서 방식으로 넘어갈 때(마지막 페이지의 nextCursor) 빠지거나 중복되는 질문이 없는지 테스트
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:list-paging;DB_CLOSE_DELAY=-1" })
+class QuestionListPagingTests {
+	private static final String KW = "커서전환";
+
+	@Autowired
+	private QuestionService questionService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void test_keywordPageToCursor() {
+		/* 검색어가 있을 때 각 페이지의 마지막 질문으로 만든 커서가 다음 페이지와 같은 질문을 조회하는지 테스트 */
+		SiteUser user = new SiteUser();
+		user.setUsername("paging");
+		user.setEmail("paging@sbb.com");
+		user.setPassword("password");
+		this.userRepository.save(user);
+		int total = QuestionService.PAGE_SIZE * 3 + 3;
+		for (int i = 0; i < total; i++) {
+			// 제목/내용에 섞어 넣어 색인 점수가 작성 순서와 다르게 한다.
+			if (i % 3 == 0) {
+				this.questionService.create(KW + " 질문 " + i, KW + " " + KW, user);
+			} else {
+				this.questionService.create("질문 " + i, KW, user);
+			}
+			this.questionService.create("다른 질문 " + i, "내용", user);
+		}
+
+		List<Integer> seen = new ArrayList<>();
+		Page<Question> paging = this.questionService.getList(0, KW);
+		assertEquals(total, paging.getTotalElements());
+		for (int page = 0; page < paging.getTotalPages(); page++) {
+			Page<Question> current = this.questionService.getList(page, KW);
+			List<Integer> ids = ids(current.getContent());
+			seen.addAll(ids);
+			// 컨트롤러(listAttributes)와 같은 방식으로 다음 커서를 만든다.
+			QuestionCursor next = QuestionCursor.decode(QuestionCursor.next(last(current.getContent())).encode());
+			QuestionCursorPage cursorPage = this.questionService.getList(KW, next);
+			if (page + 1 < paging.getTotalPages()) {
+				assertEquals(ids(this.questionService.getList(page + 1, KW).getContent()), ids(cursorPage.getContent()));
+			} else {
+				assertEquals(List.of(), cursorPage.getContent());
+				assertNull(cursorPage.getNextCursor());
+			}
+		}
+		// 모든 검색 결과를 한 번씩, 최신순으로 보았다.
+		assertEquals(total, seen.size());
+		assertEquals(total, seen.stream().distinct().count());
+		List<Integer> sorted = new ArrayList<>(seen);
+		sorted.sort((a, b) -> b - a);
+		assertEquals(sorted, seen);
+	}
+
+	private static Question last(List<Question> questions) {
+		return questions.get(questions.size() - 1);
+	}
+
+	private static List<Integer> ids(List<Question> questions) {
+		return questions.stream().map(Question::getId).toList();
+	}
+}
@@ -0,0 +1,90 @@
+package com.mysite.sbb.question;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.mysite.sbb.QueryBudget;
+import com.mysite.sbb.RequestQueryStatsFilter;
+import com.mysite.sbb.answer.Answer;
+import com.mysite.sbb.answer.AnswerRepository;
+import com.mysite.sbb.user.SiteUser;
+import com.mysite.sbb.user.UserRepository;
+
+// 주요 화면의 쿼리 예산 테스트
+// 작성자, 답변 등을 지연 로딩하면서 데이터 수만큼 쿼리가 늘어나면(N+1) 실패한다.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+		"sbb.query-stats.header=true",
+		// 2차 캐시 없이 DB에서 조회할 때의 쿼리 수를 검사한다.
+		"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+		"spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureMockMvc
+class QuestionQueryBudgetTests {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private QuestionService questionService;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private AnswerRepository answerRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void test_listBudget() throws Exception {
+		/* 작성자가 모두 다른 질문 목록: 페이지 조회, COUNT, 작성자 조회 */
+		for (int i = 0; i < QuestionService.PAGE_SIZE + 2; i++) {
+			this.questionService.create("질문 " + i, "내용", user("list" + i));
+		}
+		this.mockMvc.perform(get("/question/list"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(RequestQueryStatsFilter.HEADER))
+				.andExpect(QueryBudget.statements(3))
+				.andExpect(QueryBudget.collections(0));
+	}
+
+	@Test
+	void test_detailBudget() throws Exception {
+		/* 작성자가 모두 다른 답변 30개: ETag 버전, 질문 + 작성자, 답변 페이지 + 작성자 */
+		Question q = new Question();
+		q.setSubject("답변이 많은 질문");
+		q.setContent("내용");
+		q.setCreateDate(LocalDateTime.now());
+		q.setAuthor(user("detail"));
+		this.questionRepository.save(q);
+		for (int i = 0; i < 30; i++) {
+			Answer a = new Answer();
+			a.setContent("답변 " + i);
+			a.setCreateDate(LocalDateTime.now());
+			a.setQuestion(q);
+			a.setAuthor(user("answer" + i));
+			this.answerRepository.save(a);
+		}
+		this.mockMvc.perform(get("/question/detail/" + q.getId()))
+				.andExpect(status().isOk())
+				.andExpect(QueryBudget.statements(3))
+				.andExpect(QueryBudget.collections(0));
+	}
+
+	private SiteUser user(String username) {
+		SiteUser user = new SiteUser();
+		user.setUsername(username);
+		user.setEmail(username + "@sbb.com");
+		user.setPassword("password");
+		return this.userRepository.save(user);
+	}
+}
@@ -0,0 +1,128 @@
+package com.mysite.sbb.question;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.mysite.sbb.answer.Answer;
+
+class QuestionSearchIndexTests {
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+	@Test
+	void test_tokenize() {
+		/* 글자/숫자가 아닌 문자로 나누고 소문자로 바꾸는지, 검색어 용어(각 단어의 bigram, 한 글자 단어는 색인 검색 불가) 테스트 */
+		assertEquals(List.of("spring", "boot3", "질문"), QuestionSearchIndex.tokenize("Spring-Boot3  질문!"));
+		assertTrue(QuestionSearchIndex.tokenize(null).isEmpty());
+		assertArrayEquals(sorted(bigram("한국"), bigram("국어")), QuestionSearchIndex.queryTerms("한국어 국어"));
+		assertEquals(0, QuestionSearchIndex.queryTerms(" !? ").length);
+		QuestionSearchIndex index = new QuestionSearchIndex(null, null);
+		assertFalse(index.canSearch("한국어 qa")); // DB에서 만든 색인으로 교체되기 전
+		ReflectionTestUtils.setField(index, "ready", true);
+		assertTrue(index.canSearch("한국어 qa"));
+		assertFalse(index.canSearch("한국어 Q"));
+	}
+
+	@Test
+	void test_intersection() {
+		/* 검색어의 모든 용어를 포함하는 질문만 (작성일시, id) 역순으로 찾는지 테스트 */
+		QuestionSearchIndex index = new QuestionSearchIndex(null, null);
+		index.indexQuestion(question(1, "스프링 부트 질문", NOW.minusHours(2)));
+		index.indexQuestion(question(2, "스프링 시큐리티", NOW.minusHours(1)));
+		index.indexQuestion(question(3, "부트캠프 후기", NOW));
+
+		assertEquals(List.of(2, 1), ids(index.searchLatest("스프링")));
+		assertEquals(List.of(3, 1), ids(index.searchLatest("부트")));
+		assertEquals(List.of(1), ids(index.searchLatest("스프링 부트")));
+		assertTrue(index.searchLatest("스프링 캠프").isEmpty());
+		assertTrue(index.searchLatest("").isEmpty());
+
+		// 수정하면 이전 용어는 빠지고, 삭제하면 검색되지 않는다.
+		index.indexQuestion(question(1, "JPA 질문", NOW.minusHours(2)));
+		assertEquals(List.of(3), ids(index.searchLatest("부트")));
+		index.removeQuestion(2);
+		assertTrue(index.searchLatest("스프링").isEmpty());
+	}
+
+	@Test
+	void test_matchingSemantics() {
+		/* 검색 의미를 고정한다: 단어별 AND(순서 무관), 단어 안의 부분 문자열, 대소문자 무시, 질문 + 답변 합쳐서 일치,
+		 * 한 단어의 bigram은 문서의 서로 다른 단어에서 와도 일치한다. (LIKE '%abc%'는 "ab xbc"를 찾지 않는다.) */
+		QuestionSearchIndex index = new QuestionSearchIndex(null, null);
+		index.indexQuestion(question(1, "Spring Boot 입문", NOW.minusHours(3)));
+		index.indexQuestion(question(2, "ab xbc", NOW.minusHours(2)));
+		index.indexQuestion(question(3, "abc", NOW.minusHours(1)));
+
+		assertEquals(List.of(1), ids(index.searchLatest("boot SPRING")));
+		assertEquals(List.of(1), ids(index.searchLatest("prin")));
+		assertEquals(List.of(3, 2), ids(index.searchLatest("abc")));
+		// 문서의 bigram은 단어 경계(공백)를 넘지 않는다.
+		assertTrue(index.searchLatest("bx").isEmpty());
+		assertTrue(index.searchLatest("bootspring").isEmpty());
+
+		Answer answer = new Answer();
+		answer.setId(10);
+		answer.setContent("시큐리티 설정");
+		answer.setQuestion(question(1, "", NOW));
+		index.indexAnswer(answer);
+		assertEquals(List.of(1), ids(index.searchLatest("입문 시큐리티")));
+		index.removeAnswer(10);
+		assertTrue(index.searchLatest("입문 시큐리티").isEmpty());
+		assertEquals(List.of(1), ids(index.searchLatest("입문")));
+	}
+
+	@Test
+	void test_afterCommit() {
+		/* 트랜잭션 안의 갱신은 커밋 후에만 반영되는지 테스트 */
+		QuestionSearchIndex index = new QuestionSearchIndex(null, null);
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.indexQuestion(question(1, "롤백될 질문", NOW));
+			assertTrue(index.searchLatest("롤백").isEmpty());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization(); // 롤백: 반영하지 않는다.
+		}
+		assertTrue(index.searchLatest("롤백").isEmpty());
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			index.indexQuestion(question(2, "커밋될 질문", NOW));
+			TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertEquals(List.of(2), ids(index.searchLatest("커밋")));
+	}
+
+	private static Question question(int id, String subject, LocalDateTime createDate) {
+		Question q = new Question();
+		q.setId(id);
+		q.setSubject(subject);
+		q.setContent("");
+		q.setCreateDate(createDate);
+		return q;
+	}
+
+	private static int bigram(String s) {
+		return QuestionSearchIndex.bigram(s, 0);
+	}
+
+	private static int[] sorted(int... values) {
+		Arrays.sort(values);
+		return values;
+	}
+
+	private static List<Integer> ids(List<QuestionCursor> cursors) {
+		return cursors.stream().map(QuestionCursor::getId).toList();
+	}
+}
@@ -0,0 +1,50 @@
+package com.mysite.sbb.question;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class QuestionSuggestIndexTests {
+	@Test
+	void test_jamoPrefix() {
+		/* 입력 중인 한글(음절 일부, 자모)로 제목을 찾는지 테스트 */
+		QuestionSuggestIndex index = new QuestionSuggestIndex(null);
+		index.put(1, "한국어 질문", 0, 0);
+		index.put(2, "하나만 묻겠습니다", 0, 0);
+		index.put(3, "Spring Boot 질문", 0, 0);
+
+		assertEquals(List.of(1), ids(index.suggest("한ㄱ", 10)));
+		assertEquals(List.of(1), ids(index.suggest("한구", 10)));
+		assertEquals(List.of(1, 2), ids(index.suggest("하", 10)));
+		// "한" 다음에 모음을 치면 "하나"가 된다.
+		assertEquals(List.of(1, 2), ids(index.suggest("한", 10)));
+		assertEquals(List.of(3), ids(index.suggest("spring  b", 10)));
+		assertTrue(index.suggest("없는 제목", 10).isEmpty());
+	}
+
+	@Test
+	void test_weightAndUpdates() {
+		/* 가중치(추천, 답변 수) 순 정렬과 수정/삭제 반영 테스트 */
+		QuestionSuggestIndex index = new QuestionSuggestIndex(null);
+		index.put(1, "페이징 질문", 0, 1);
+		index.put(2, "페이징 오류", 1, 0);
+		index.put(3, "페이징 설정", 0, 0);
+		assertEquals(List.of(2, 1, 3), ids(index.suggest("페이", 10)));
+		assertEquals(List.of(2, 1), ids(index.suggest("페이", 2)));
+
+		index.addAnswers(3, 5);
+		assertEquals(List.of(3, 2, 1), ids(index.suggest("페이", 10)));
+
+		index.put(3, "정렬 설정", 0, 5);
+		index.remove(2);
+		assertEquals(List.of(1), ids(index.suggest("페이", 10)));
+		assertEquals(List.of(3), ids(index.suggest("정렬", 10)));
+	}
+
+	private static List<Integer> ids(List<QuestionSuggestIndex.Suggestion> suggestions) {
+		return suggestions.stream().map(QuestionSuggestIndex.Suggestion::id).toList();
+	}
+}
@@ -0,0 +1,100 @@
+package com.mysite.sbb.question;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// 질문 조회수를 모았다가 한 번에 저장하는지 테스트
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:view-counter;DB_CLOSE_DELAY=-1",
+		// 테스트에서 직접 flush()를 호출한다.
+		"sbb.view.flush-interval=1h",
+		"sbb.view.max-keys=1" })
+class QuestionViewCounterTests {
+	@Autowired
+	private QuestionViewCounter questionViewCounter;
+
+	@Autowired
+	private QuestionRepository questionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void test_flush() {
+		/* 조회수는 메모리에 모았다가 flush 시 한 번에 더하고, 모으는 질문 수를 넘으면 바로 저장하는지 테스트 */
+		Question hot = create("많이 보는 질문");
+		Question other = create("다른 질문");
+
+		for (int i = 0; i < 5; i++) {
+			this.questionViewCounter.increment(hot.getId());
+		}
+		assertEquals(0, viewCount(hot));
+		assertEquals(5, this.questionViewCounter.count(this.questionRepository.findById(hot.getId()).get()));
+
+		// max-keys=1 이므로 두 번째 질문은 바로 저장된다.
+		this.questionViewCounter.increment(other.getId());
+		assertEquals(1, viewCount(other));
+
+		assertTrue(this.entityManagerFactory.getCache().contains(Question.class, hot.getId()));
+		this.questionViewCounter.flush();
+		assertEquals(5, viewCount(hot));
+		assertEquals(5, this.questionViewCounter.count(this.questionRepository.findById(hot.getId()).get()));
+		// 조회수는 엔티티에 매핑하지 않으므로 저장해도 2차 캐시의 질문은 그대로 둔다.
+		assertTrue(this.entityManagerFactory.getCache().contains(Question.class, hot.getId()));
+
+		// 저장 후에 들어온 조회만 다음 flush에서 더한다.
+		this.questionViewCounter.increment(hot.getId());
+		this.questionViewCounter.flush();
+		assertEquals(6, viewCount(hot));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void test_incrementDuringRemoval() {
+		/* 조회가 없어 제거되는 카운터를 그 직전에 얻은 요청의 조회도 사라지지 않는지 테스트 */
+		Question q = create("제거되는 카운터 질문");
+		this.questionViewCounter.flush(); // max-keys=1: 다른 테스트가 남긴 (조회가 없는) 카운터를 제거한다.
+		this.questionViewCounter.increment(q.getId());
+		this.questionViewCounter.flush();
+		assertEquals(1, viewCount(q));
+
+		// increment()가 pending에서 카운터를 얻은 뒤, 더하기 전에 flush가 제거한 경우
+		Map<Integer, LongAdder> pending = (Map<Integer, LongAdder>) ReflectionTestUtils.getField(this.questionViewCounter, "pending");
+		LongAdder adder = pending.get(q.getId());
+		this.questionViewCounter.flush();
+		assertFalse(pending.containsKey(q.getId()));
+		adder.increment();
+
+		this.questionViewCounter.flush(); // 제거된 카운터의 값을 pending으로 옮겨서 저장한다.
+		assertEquals(2, viewCount(q));
+		this.questionViewCounter.flush();
+	}
+
+	private Question create(String subject) {
+		Question q = new Question();
+		q.setSubject(subject);
+		q.setContent("내용");
+		q.setCreateDate(LocalDateTime.now());
+		return this.questionRepository.save(q);
+	}
+
+	private int viewCount(Question question) {
+		return this.jdbcTemplate.queryForObject("select view_count from question where id = ?", Integer.class, question.getId());
+	}
+}